@@ -2,28 +2,37 @@ package com.alura.literalura;
 
 import com.alura.literalura.interfaz.AppConsole;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Clase principal de la aplicación "Literatura".
  * Configura la aplicación Spring Boot y ejecuta las operaciones de la consola.
+ * Habilita la ejecución de tareas programadas (como el refresco de descargas).
  */
 @SpringBootApplication
+@EnableScheduling
 public class LiteraturaApplication implements CommandLineRunner {
 
 	// Inyección de dependencias para la interfaz de consola
 	@Autowired
 	private AppConsole app;
 
+	// Permite iniciar la aplicación sin el menú interactivo (por ejemplo, en las pruebas)
+	@Value("${literalura.consola.habilitada:true}")
+	private boolean consolaHabilitada;
+
 	/**
 	 * Punto de entrada de la aplicación.
 	 *
 	 * @param args Argumentos pasados desde la línea de comandos.
 	 */
 	public static void main(String[] args) {
-		SpringApplication.run(LiteraturaApplication.class, args);
+		// Cierra el contexto al terminar para detener también los hilos en segundo plano
+		System.exit(SpringApplication.exit(SpringApplication.run(LiteraturaApplication.class, args)));
 	}
 
 	/**
@@ -35,6 +44,8 @@ public class LiteraturaApplication implements CommandLineRunner {
 	 */
 	@Override
 	public void run(String... args) throws Exception {
-		app.ejecutarOperaciones();
+		if (consolaHabilitada) {
+			app.ejecutarOperaciones();
+		}
 	}
 }
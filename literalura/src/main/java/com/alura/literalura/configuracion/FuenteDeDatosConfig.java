@@ -0,0 +1,107 @@
+package com.alura.literalura.configuracion;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Configuración de las fuentes de datos de la aplicación.
+ * Define un pool para la base de datos primaria (escrituras) y otro para la réplica (lecturas),
+ * y una fuente de datos que enruta cada transacción según sea de solo lectura o no.
+ */
+@Configuration
+public class FuenteDeDatosConfig {
+
+    /**
+     * Tipos de destino a los que se puede enrutar una conexión.
+     */
+    enum Destino { PRIMARIA, REPLICA }
+
+    /**
+     * Propiedades de conexión de la base de datos primaria ("spring.datasource.*").
+     *
+     * @return Las propiedades de la primaria.
+     */
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties propiedadesPrimaria() {
+        return new DataSourceProperties();
+    }
+
+    /**
+     * Propiedades de conexión de la réplica de lectura ("literalura.replica.*").
+     *
+     * @return Las propiedades de la réplica.
+     */
+    @Bean
+    @ConfigurationProperties("literalura.replica")
+    public DataSourceProperties propiedadesReplica() {
+        return new DataSourceProperties();
+    }
+
+    /**
+     * Pool de conexiones de la base de datos primaria, ajustado con "spring.datasource.hikari.*".
+     * Flyway ejecuta las migraciones sobre esta fuente.
+     *
+     * @param propiedades Propiedades de conexión de la primaria.
+     * @return El pool de la primaria.
+     */
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource fuentePrimaria(@Qualifier("propiedadesPrimaria") DataSourceProperties propiedades) {
+        return propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Pool de conexiones de la réplica de lectura, ajustado con "literalura.replica.hikari.*".
+     *
+     * @param propiedades Propiedades de conexión de la réplica.
+     * @return El pool de la réplica.
+     */
+    @Bean
+    @ConfigurationProperties("literalura.replica.hikari")
+    public HikariDataSource fuenteReplica(@Qualifier("propiedadesReplica") DataSourceProperties propiedades) {
+        return propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Fuente de datos principal de la aplicación. Las transacciones marcadas con
+     * {@code @Transactional(readOnly = true)} usan la réplica y el resto la primaria.
+     * El proxy perezoso retrasa la obtención de la conexión hasta que la transacción
+     * ya conoce su modo de solo lectura.
+     *
+     * @param primaria Pool de la base de datos primaria.
+     * @param replica Pool de la réplica de lectura.
+     * @return La fuente de datos enrutada.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("fuentePrimaria") DataSource primaria,
+                                 @Qualifier("fuenteReplica") DataSource replica) {
+        AbstractRoutingDataSource enrutador = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                        ? Destino.REPLICA
+                        : Destino.PRIMARIA;
+            }
+        };
+        enrutador.setTargetDataSources(Map.of(Destino.PRIMARIA, primaria, Destino.REPLICA, replica));
+        enrutador.setDefaultTargetDataSource(primaria);
+        enrutador.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(enrutador);
+    }
+}
@@ -32,6 +32,19 @@ public record AutorDto(
         );
     }
 
+    /**
+     * Escribe la representación en texto del autor al final del búfer indicado,
+     * sin crear cadenas intermedias.
+     *
+     * @param destino Búfer donde se agrega el texto.
+     */
+    public void escribir(StringBuilder destino) {
+        destino.append("Autor: ").append(nombre).append('\n')
+                .append("Fecha de nacimiento: ").append(anhioDeNacimiento).append('\n')
+                .append("Fecha de fallecimiento: ").append(anhioDeFallecimiento).append('\n')
+                .append("Libros: [").append(librosEscritos).append("]\n");
+    }
+
     /**
      * Método que genera una representación en texto del autor.
      *
@@ -39,11 +52,8 @@ public record AutorDto(
      */
     @Override
     public String toString() {
-        return """
-                Autor: %s
-                Fecha de nacimiento: %d
-                Fecha de fallecimiento: %d
-                Libros: [%s]
-                """.formatted(nombre, anhioDeNacimiento, anhioDeFallecimiento, librosEscritos);
+        StringBuilder texto = new StringBuilder(128);
+        escribir(texto);
+        return texto.toString();
     }
 }
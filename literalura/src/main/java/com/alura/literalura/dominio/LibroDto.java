@@ -14,7 +14,8 @@ public record LibroDto(
         String tema,         // Tema principal del libro
         String idioma,       // Idioma del libro
         Integer descargas,   // Número de veces que el libro ha sido descargado
-        String autores       // Lista de nombres de los autores, separados por comas
+        String autores,      // Lista de nombres de los autores, separados por comas
+        String posibleDuplicado // Título de un libro guardado con un título casi idéntico, o null
 ) {
     /**
      * Constructor que convierte una entidad Libro en un LibroDto.
@@ -22,6 +23,17 @@ public record LibroDto(
      * @param libro La entidad Libro que se va a transformar.
      */
     public LibroDto(Libro libro) {
+        this(libro, null);
+    }
+
+    /**
+     * Constructor que convierte una entidad Libro recién guardada en un LibroDto,
+     * indicando si se parece a otro libro ya guardado.
+     *
+     * @param libro La entidad Libro que se va a transformar.
+     * @param posibleDuplicado Título del libro parecido, o null si no hay ninguno.
+     */
+    public LibroDto(Libro libro, String posibleDuplicado) {
         this(
                 libro.getTitulo(), // Obtiene el título del libro.
                 libro.getTemas(), // Obtiene el tema del libro.
@@ -30,10 +42,29 @@ public record LibroDto(
                 libro.getAutores() // Obtiene la lista de autores del libro.
                         .stream() // Convierte la lista de autores en un flujo (stream) para procesar los elementos.
                         .map(Autor::getNombre) // Transforma cada autor en su nombre.
-                        .collect(Collectors.joining(", ")) // Une los nombres con comas como separador.
+                        .collect(Collectors.joining(", ")), // Une los nombres con comas como separador.
+                posibleDuplicado
         );
     }
 
+    /**
+     * Escribe la representación en texto del libro al final del búfer indicado,
+     * sin crear cadenas intermedias.
+     *
+     * @param destino Búfer donde se agrega el texto.
+     */
+    public void escribir(StringBuilder destino) {
+        destino.append("--------- LIBRO ---------\n")
+                .append("Título: ").append(titulo).append('\n')
+                .append("Autor(es): ").append(autores).append('\n')
+                .append("Idioma: ").append(idioma).append('\n')
+                .append("Número de descargas: ").append(descargas).append('\n');
+        if (posibleDuplicado != null) {
+            destino.append("Aviso: posible duplicado de \"").append(posibleDuplicado).append("\"\n");
+        }
+        destino.append("-------------------------\n");
+    }
+
     /**
      * Método que genera una representación en texto del libro.
      *
@@ -41,18 +72,8 @@ public record LibroDto(
      */
     @Override
     public String toString() {
-        return """
-                --------- LIBRO ---------
-                Título: %s
-                Autor(es): %s
-                Idioma: %s
-                Número de descargas: %d
-                -------------------------
-                """.formatted(
-                titulo,    // Título del libro
-                autores,   // Lista de autores
-                idioma,    // Idioma del libro
-                descargas  // Número de descargas
-        );
+        StringBuilder texto = new StringBuilder(160);
+        escribir(texto);
+        return texto.toString();
     }
 }
@@ -0,0 +1,13 @@
+package com.alura.literalura.dominio;
+
+/**
+ * Clase DTO (Data Transfer Object) para representar un libro recomendado por su parecido
+ * con otro libro almacenado.
+ */
+public record LibroSimilarDto(
+        Long id,          // Identificador del libro en la base de datos
+        String titulo,    // Título del libro
+        String idioma,    // Nombre del idioma del libro
+        double similitud  // Similitud estimada con el libro de referencia, de 0 a 1
+) {
+}
@@ -1,20 +1,34 @@
 package com.alura.literalura.interfaz;
 
-import com.alura.literalura.dominio.AutorDto;
 import com.alura.literalura.dominio.LibroDto;
+import com.alura.literalura.dominio.LibroSimilarDto;
 import com.alura.literalura.modelo.Datos;
 import com.alura.literalura.modelo.DatosLibro;
 import com.alura.literalura.modelo.entidad.Idioma;
 import com.alura.literalura.servicio.AutorService;
+import com.alura.literalura.servicio.ExportacionService;
+import com.alura.literalura.servicio.HistogramaAutoresService;
+import com.alura.literalura.servicio.RecomendacionService;
+import com.alura.literalura.servicio.SincronizacionService;
 import com.alura.literalura.servicio.provedor.ConsumoAPI;
 import com.alura.literalura.servicio.provedor.ConvierteDatos;
 import com.alura.literalura.servicio.LibroService;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.InputMismatchException;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Clase principal para la interacción del usuario en la consola.
@@ -23,16 +37,42 @@ import java.util.Scanner;
 @Component
 public class AppConsole {
 
-    private static final String URL_BASE = "https://gutendex.com/books/"; // URL base de la API de libros.
+    @Value("${literalura.api.url}")
+    private String urlBase; // URL base de la API de libros.
+
+    @Value("${literalura.busqueda.paginas-maximas:1}")
+    private int paginasMaximas; // Páginas de resultados que se leen en cada búsqueda.
+
+    @Value("${literalura.consola.formato:detallado}")
+    private String formato; // Formato de los listados: "detallado" o "tabla".
 
     @Autowired
     private LibroService libroService; // Servicio para gestionar libros.
     @Autowired
     private AutorService autorService; // Servicio para gestionar autores.
+    @Autowired
+    private SincronizacionService sincronizacionService; // Servicio de sincronización incremental.
+    @Autowired
+    private ExportacionService exportacionService; // Servicio de exportación del catálogo.
+    @Autowired
+    private RecomendacionService recomendacionService; // Servicio de recomendación de libros similares.
+    @Autowired
+    private HistogramaAutoresService histogramaAutoresService; // Conteos de autores vivos por año.
+
+    private static final int ANCHO_BARRA = 50; // Ancho máximo de las barras de la línea de tiempo.
 
     private final Scanner teclado = new Scanner(System.in); // Objeto Scanner para capturar entrada del usuario.
     private final ConsumoAPI consumoAPI = ConsumoAPI.getInstance(); // Singleton para consumo de API.
     private final ConvierteDatos conversor = ConvierteDatos.getInstance(); // Singleton para conversión de datos.
+    private RenderizadorConsola renderizador; // Escritura con búfer de los listados.
+
+    /**
+     * Crea el renderizador de listados con el formato configurado.
+     */
+    @PostConstruct
+    public void iniciar() {
+        renderizador = RenderizadorConsola.salidaEstandar("tabla".equalsIgnoreCase(formato));
+    }
 
     /**
      * Método principal que ejecuta el flujo de operaciones del programa.
@@ -42,8 +82,9 @@ public class AppConsole {
         int operacion = -1;
         while (operacion != 0) {
             mostrarMenu(); // Muestra el menú de opciones.
-            operacion = obtenerEntradaNumerica("Elija la opción a través de su número: ");
-            if (operacion == -1) continue; // En caso de error, vuelve al menú.
+            OptionalInt entrada = obtenerEntradaNumerica("Elija la opción a través de su número: ");
+            if (entrada.isEmpty()) continue; // En caso de error, vuelve al menú.
+            operacion = entrada.getAsInt();
 
             // Gestiona la opción seleccionada por el usuario.
             switch (operacion) {
@@ -55,6 +96,11 @@ public class AppConsole {
                     mostrarIdiomas(); // Muestra los idiomas disponibles.
                     listarLibrosPorIdioma();
                 }
+                case 6 -> sincronizarLibrosNuevos();
+                case 7 -> exportarCatalogo();
+                case 8 -> listarLibrosSimilares();
+                case 9 -> listarLibrosPorAutor();
+                case 10 -> mostrarLineaDeTiempoDeAutores();
                 case 0 -> System.out.println("Saliendo...");
                 default -> System.out.println("Opción no válida.");
             }
@@ -72,48 +118,113 @@ public class AppConsole {
                 3- Listar autores registrados
                 4- Listar autores vivos en un determinado año
                 5- Listar libros por idioma
+                6- Sincronizar libros nuevos
+                7- Exportar catálogo a archivo
+                8- Libros similares a un libro registrado
+                9- Buscar libros por autor
+                10- Línea de tiempo de autores vivos
                 0- Salir
                 """);
     }
 
     /**
      * Solicita un número al usuario con un mensaje personalizado.
-     * Maneja errores de entrada no numérica.
+     * Maneja errores de entrada no numérica. Cualquier entero es válido (los años pueden
+     * ser negativos), así que el error se indica con un resultado vacío y no con un número.
      *
      * @param mensaje Mensaje a mostrar al usuario.
-     * @return El número ingresado o -1 si ocurre un error.
+     * @return El número ingresado, o vacío si la entrada no es un número.
      */
-    private int obtenerEntradaNumerica(String mensaje) {
+    private OptionalInt obtenerEntradaNumerica(String mensaje) {
         System.out.print(mensaje);
         try {
-            return teclado.nextInt();
+            return OptionalInt.of(teclado.nextInt());
         } catch (InputMismatchException e) {
             System.out.println("Ingreso inválido, por favor ingrese un número.");
-            return -1;
+            return OptionalInt.empty();
         } finally {
             teclado.nextLine(); // Limpia el buffer de entrada.
         }
     }
 
     /**
-     * Muestra los idiomas disponibles para la búsqueda.
+     * Muestra los idiomas disponibles para la búsqueda (los de los libros registrados).
      */
     public void mostrarIdiomas() {
-        for (Idioma idioma : Idioma.values()) {
+        for (Idioma idioma : libroService.obtenerIdiomasRegistrados()) {
             System.out.println(idioma.mostrar());
         }
     }
 
     /**
-     * Busca un libro por su título usando la API y guarda el resultado.
+     * Busca libros por su título usando la API y guarda todos los resultados en segundo plano.
+     * Si ya existe localmente un libro con un título parecido, lo muestra sin consultar la API.
+     * Mientras se guardan, el usuario elige uno de la lista ordenada por descargas.
      */
     private void buscarLibroPorTitulo() {
         System.out.println("Ingrese el nombre del libro que desea buscar:");
         String titulo = teclado.nextLine();
-        String json = consumoAPI.obtenerDatos(crearUrlBusqueda(titulo)); // Realiza la solicitud a la API.
-        DatosLibro libroBuscado = conversor.obtenerDatos(json, Datos.class).libros().get(0); // Convierte los datos JSON a un objeto.
-        LibroDto libroNuevo = libroService.guardarLibro(libroBuscado); // Guarda el libro en el sistema.
-        System.out.println(libroNuevo); // Muestra el libro encontrado.
+        Optional<LibroDto> libroLocal = libroService.buscarLibroSimilar(titulo); // Busca primero en la base de datos.
+        if (libroLocal.isPresent()) {
+            System.out.println(libroLocal.get());
+            return;
+        }
+        List<DatosLibro> resultados = obtenerResultados(crearUrlBusqueda(titulo)); // Realiza la solicitud a la API.
+        if (resultados.isEmpty()) {
+            System.out.println("No se encontraron libros.");
+            return;
+        }
+
+        // Guarda todos los resultados en paralelo y los ordena por descargas para mostrarlos
+        List<Map.Entry<DatosLibro, CompletableFuture<LibroDto>>> guardados = resultados.stream()
+                .map(libro -> Map.entry(libro, libroService.guardarLibroEnSegundoPlano(libro)))
+                .sorted(Comparator.comparing(
+                        (Map.Entry<DatosLibro, CompletableFuture<LibroDto>> par) -> descargas(par.getKey()))
+                        .reversed())
+                .toList();
+        for (int i = 0; i < guardados.size(); i++) {
+            DatosLibro libro = guardados.get(i).getKey();
+            System.out.printf("%d- %s (%d descargas)%n", i + 1, libro.titulo(), descargas(libro));
+        }
+
+        int opcion = obtenerEntradaNumerica("Elija el libro a través de su número (0 para ninguno): ").orElse(0);
+        if (opcion < 1 || opcion > guardados.size()) {
+            return;
+        }
+        try {
+            System.out.println(guardados.get(opcion - 1).getValue().join()); // Muestra el libro elegido.
+        } catch (CompletionException e) {
+            System.out.println("No se pudo guardar el libro: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Obtiene los libros de la primera página de resultados y, si está configurado,
+     * de las páginas siguientes.
+     *
+     * @param url La URL de la primera página.
+     * @return Los libros encontrados, o una lista vacía si no hay resultados.
+     */
+    private List<DatosLibro> obtenerResultados(String url) {
+        List<DatosLibro> libros = new ArrayList<>();
+        for (int pagina = 0; url != null && pagina < paginasMaximas; pagina++) {
+            Datos datos = conversor.obtenerDatos(consumoAPI.obtenerFlujo(url), Datos.class);
+            if (datos.libros() != null) {
+                libros.addAll(datos.libros());
+            }
+            url = datos.siguiente();
+        }
+        return libros;
+    }
+
+    /**
+     * Obtiene el contador de descargas de un libro, o 0 si no viene informado.
+     *
+     * @param libro Los datos del libro.
+     * @return La cantidad de descargas.
+     */
+    private int descargas(DatosLibro libro) {
+        return libro.contadorDeDescargas() == null ? 0 : libro.contadorDeDescargas();
     }
 
     /**
@@ -123,7 +234,7 @@ public class AppConsole {
      * @return La URL con el formato adecuado.
      */
     private String crearUrlBusqueda(String titulo) {
-        return URL_BASE + "?search=" + titulo.replace(" ", "+");
+        return urlBase + "?search=" + titulo.replace(" ", "+");
     }
 
     /**
@@ -150,7 +261,7 @@ public class AppConsole {
         if (elementos.isEmpty()) {
             System.out.println("No se encontraron " + tipo.toLowerCase());
         } else {
-            elementos.forEach(System.out::println);
+            renderizador.mostrar(elementos);
         }
     }
 
@@ -158,11 +269,8 @@ public class AppConsole {
      * Lista autores vivos en un año determinado ingresado por el usuario.
      */
     private void listarAutoresVivosPorAnio() {
-        int anio = obtenerEntradaNumerica("Ingrese el año de los autor(es) vivos que desea buscar: ");
-        if (anio != -1) {
-            List<AutorDto> autoresVivos = autorService.obtenerAutoresVivosPorAnio(anio);
-            autoresVivos.forEach(System.out::println);
-        }
+        obtenerEntradaNumerica("Ingrese el año de los autor(es) vivos que desea buscar: ")
+                .ifPresent(anio -> renderizador.mostrar(autorService.obtenerAutoresVivosPorAnio(anio)));
     }
 
     /**
@@ -171,12 +279,123 @@ public class AppConsole {
     private void listarLibrosPorIdioma() {
         System.out.println("Escriba el idioma deseado: ");
         String abreviatura = teclado.nextLine();
-        Idioma idioma = Idioma.fromString(abreviatura); // Convierte la entrada del usuario al enum Idioma.
-        if (idioma != null) {
+        try {
+            Idioma idioma = Idioma.fromString(abreviatura); // Convierte la entrada del usuario en un Idioma.
             List<LibroDto> librosPorIdioma = libroService.obtenerLibrosPorIdioma(idioma);
-            librosPorIdioma.forEach(System.out::println);
-        } else {
+            renderizador.mostrar(librosPorIdioma);
+        } catch (IllegalArgumentException e) {
             System.out.println("Idioma no válido.");
         }
     }
+
+    /**
+     * Ingiere los libros publicados en Gutendex desde la última sincronización.
+     */
+    private void sincronizarLibrosNuevos() {
+        int nuevos = sincronizacionService.sincronizar();
+        System.out.println("Libros nuevos sincronizados: " + nuevos);
+    }
+
+    /**
+     * Exporta los libros o autores registrados a un archivo NDJSON o CSV, opcionalmente comprimido.
+     */
+    private void exportarCatalogo() {
+        int tipo = obtenerEntradaNumerica("Elija qué exportar (1- Libros, 2- Autores): ").orElse(0);
+        if (tipo != 1 && tipo != 2) {
+            System.out.println("Opción no válida.");
+            return;
+        }
+        System.out.println("Escriba el formato (ndjson/csv): ");
+        ExportacionService.Formato formato;
+        try {
+            formato = ExportacionService.Formato.valueOf(teclado.nextLine().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Formato no válido.");
+            return;
+        }
+        System.out.println("¿Comprimir con gzip? (s/n): ");
+        boolean comprimir = teclado.nextLine().trim().equalsIgnoreCase("s");
+        System.out.println("Escriba la ruta del archivo de destino: ");
+        Path destino = Path.of(teclado.nextLine().trim());
+
+        long filas = tipo == 1
+                ? exportacionService.exportarLibros(destino, formato, comprimir)
+                : exportacionService.exportarAutores(destino, formato, comprimir);
+        System.out.println("Filas exportadas: " + filas + " -> " + destino.toAbsolutePath());
+    }
+
+    /**
+     * Lista los libros registrados más parecidos (por temas, autores e idioma) a un libro dado.
+     */
+    private void listarLibrosSimilares() {
+        System.out.println("Ingrese el título del libro registrado:");
+        String titulo = teclado.nextLine();
+        List<LibroSimilarDto> similares = recomendacionService.obtenerSimilares(titulo, 5);
+        if (similares.isEmpty()) {
+            System.out.println("No se encontraron libros similares.");
+        } else {
+            similares.forEach(similar -> System.out.printf("%.0f%% - %s (%s)%n",
+                    similar.similitud() * 100, similar.titulo(), similar.idioma()));
+        }
+    }
+
+    /**
+     * Busca libros registrados por el comienzo del apellido o nombre de su autor,
+     * mostrando antes los autores sugeridos.
+     */
+    private void listarLibrosPorAutor() {
+        System.out.println("Escriba el comienzo del apellido o nombre del autor: ");
+        String autor = teclado.nextLine();
+        if (autor.isBlank()) {
+            System.out.println("Autor no válido.");
+            return;
+        }
+        List<String> sugerencias = autorService.autocompletarAutores(autor, 10);
+        if (sugerencias.isEmpty()) {
+            System.out.println("No se encontraron autores.");
+            return;
+        }
+        System.out.println("Autores: " + String.join(" | ", sugerencias));
+        listarElementos("Libros", libroService.obtenerLibrosPorAutor(autor));
+    }
+
+    /**
+     * Muestra, para cada intervalo de un rango de años, cuántos autores registrados
+     * estuvieron vivos en algún momento del intervalo, con una barra proporcional.
+     */
+    private void mostrarLineaDeTiempoDeAutores() {
+        OptionalInt entradaDesde = obtenerEntradaNumerica("Ingrese el año inicial: ");
+        if (entradaDesde.isEmpty()) return;
+        OptionalInt entradaHasta = obtenerEntradaNumerica("Ingrese el año final: ");
+        if (entradaHasta.isEmpty()) return;
+        OptionalInt entradaPaso = obtenerEntradaNumerica("Ingrese la cantidad de años por intervalo (por ejemplo 10): ");
+        if (entradaPaso.isEmpty()) return;
+        int desde = entradaDesde.getAsInt();
+        int hasta = entradaHasta.getAsInt();
+        int paso = entradaPaso.getAsInt();
+        if (paso < 1 || hasta < desde) {
+            System.out.println("Rango no válido.");
+            return;
+        }
+
+        // Cuenta los autores de cada intervalo; cada conteo es una consulta en tiempo constante
+        int intervalos = (int) Math.min(1000, ((long) hasta - desde) / paso + 1);
+        int[] vivos = new int[intervalos];
+        int maximo = 0;
+        for (int i = 0; i < intervalos; i++) {
+            int inicio = desde + i * paso;
+            vivos[i] = histogramaAutoresService.contarVivosEntre(inicio, Math.min(hasta, inicio + paso - 1));
+            maximo = Math.max(maximo, vivos[i]);
+        }
+        if (maximo == 0) {
+            System.out.println("No se encontraron autores vivos en ese rango.");
+            return;
+        }
+        for (int i = 0; i < intervalos; i++) {
+            int inicio = desde + i * paso;
+            int barra = (int) Math.ceil(vivos[i] * ANCHO_BARRA / (double) maximo);
+            System.out.printf("%6d-%-6d | %-" + ANCHO_BARRA + "s %d%n",
+                    inicio, Math.min(hasta, inicio + paso - 1), "#".repeat(barra), vivos[i]);
+        }
+    }
 }
@@ -0,0 +1,229 @@
+package com.alura.literalura.interfaz;
+
+import com.alura.literalura.dominio.AutorDto;
+import com.alura.literalura.dominio.LibroDto;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * Escribe listados de libros y autores en la consola.
+ * Cada fila se arma en un búfer de caracteres que se reutiliza y se envía a la salida estándar
+ * en bloques grandes, a través de un canal con búfer propio, en lugar de imprimir fila por fila
+ * con {@code System.out} (sincronizado y con vaciado automático).
+ *
+ * Ofrece dos formatos: el detallado (el mismo texto que {@link LibroDto#toString()} y
+ * {@link AutorDto#toString()}) y una tabla compacta de una línea por elemento.
+ */
+public class RenderizadorConsola {
+
+    // Caracteres acumulados antes de enviar un bloque a la salida
+    private static final int TAMANIO_BLOQUE = 32 * 1024;
+
+    // Tamaño del búfer de bytes sobre el canal de salida
+    private static final int TAMANIO_BUFER = 64 * 1024;
+
+    private static final String SEPARADOR = " | "; // Separador de columnas de la tabla.
+
+    private final Writer salida; // Escritor con búfer sobre el destino.
+    private final boolean tabla; // Indica si se usa el formato de tabla compacta.
+    private final StringBuilder bloque = new StringBuilder(TAMANIO_BLOQUE + 1024); // Filas pendientes de enviar.
+    private char[] caracteres = new char[TAMANIO_BLOQUE + 1024]; // Copia del bloque para escribirlo sin crear cadenas.
+
+    /**
+     * Crea un renderizador sobre un flujo de salida.
+     *
+     * @param destino Flujo de destino.
+     * @param charset Codificación de la salida.
+     * @param tabla Indica si se usa el formato de tabla compacta.
+     */
+    public RenderizadorConsola(OutputStream destino, Charset charset, boolean tabla) {
+        this.salida = new OutputStreamWriter(new BufferedOutputStream(destino, TAMANIO_BUFER), charset);
+        this.tabla = tabla;
+    }
+
+    /**
+     * Crea un renderizador sobre la salida estándar, con la misma codificación que {@code System.out}.
+     *
+     * @param tabla Indica si se usa el formato de tabla compacta.
+     * @return El renderizador.
+     */
+    public static RenderizadorConsola salidaEstandar(boolean tabla) {
+        String codificacion = System.getProperty("sun.stdout.encoding"); // Solo se define en consolas de Windows.
+        Charset charset = codificacion == null ? Charset.defaultCharset() : Charset.forName(codificacion);
+        OutputStream canal = Channels.newOutputStream(new FileOutputStream(FileDescriptor.out).getChannel());
+        return new RenderizadorConsola(canal, charset, tabla);
+    }
+
+    /**
+     * Muestra una lista de libros o autores; cualquier otro elemento se muestra con su toString().
+     *
+     * @param elementos Los elementos a mostrar.
+     */
+    public void mostrar(List<?> elementos) {
+        System.out.flush(); // Lo ya impreso con System.out debe aparecer antes que el listado.
+        try {
+            if (tabla && !elementos.isEmpty()) {
+                escribirEncabezado(elementos.get(0));
+            }
+            for (Object elemento : elementos) {
+                if (elemento instanceof LibroDto libro) {
+                    if (tabla) filaLibro(libro); else libro.escribir(bloque);
+                } else if (elemento instanceof AutorDto autor) {
+                    if (tabla) filaAutor(autor); else autor.escribir(bloque);
+                } else {
+                    bloque.append(elemento);
+                    if (tabla) {
+                        bloque.append('\n'); // Una línea por elemento, como las filas de la tabla
+                    }
+                }
+                if (!tabla) {
+                    bloque.append(System.lineSeparator()); // Igual que System.out.println
+                }
+                if (bloque.length() >= TAMANIO_BLOQUE) {
+                    enviarBloque();
+                }
+            }
+            enviarBloque();
+            salida.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Escribe el encabezado de la tabla según el tipo de elemento.
+     *
+     * @param primero El primer elemento del listado.
+     */
+    private void escribirEncabezado(Object primero) {
+        if (primero instanceof LibroDto) {
+            columna("Título", 40).append(SEPARADOR);
+            columna("Autor(es)", 30).append(SEPARADOR);
+            columna("Idioma", 12).append(SEPARADOR);
+            columna("Descargas", 10).append('\n');
+            bloque.append("-".repeat(40 + 30 + 12 + 10 + 3 * SEPARADOR.length())).append('\n');
+        } else if (primero instanceof AutorDto) {
+            columna("Autor", 30).append(SEPARADOR);
+            columna("Nacimiento", 10).append(SEPARADOR);
+            columna("Fallecimiento", 13).append(SEPARADOR);
+            bloque.append("Libros").append('\n');
+            bloque.append("-".repeat(30 + 10 + 13 + 40 + 3 * SEPARADOR.length())).append('\n');
+        }
+    }
+
+    /**
+     * Agrega un libro como fila de la tabla.
+     *
+     * @param libro El libro a mostrar.
+     */
+    private void filaLibro(LibroDto libro) {
+        columna(libro.titulo(), 40).append(SEPARADOR);
+        columna(libro.autores(), 30).append(SEPARADOR);
+        columna(libro.idioma(), 12).append(SEPARADOR);
+        numero(libro.descargas(), 10).append('\n');
+    }
+
+    /**
+     * Agrega un autor como fila de la tabla.
+     *
+     * @param autor El autor a mostrar.
+     */
+    private void filaAutor(AutorDto autor) {
+        columna(autor.nombre(), 30).append(SEPARADOR);
+        numero(autor.anhioDeNacimiento(), 10).append(SEPARADOR);
+        numero(autor.anhioDeFallecimiento(), 13).append(SEPARADOR);
+        bloque.append(autor.librosEscritos()).append('\n');
+    }
+
+    /**
+     * Agrega un texto ajustado al ancho de la columna: recortado con "..." si es más largo,
+     * o completado con espacios si es más corto.
+     *
+     * @param texto El texto (puede ser null).
+     * @param ancho Ancho de la columna.
+     * @return El búfer, para encadenar llamadas.
+     */
+    private StringBuilder columna(String texto, int ancho) {
+        String valor = texto == null ? "" : texto;
+        if (valor.length() > ancho) {
+            bloque.append(valor, 0, ancho - 3).append("...");
+        } else {
+            bloque.append(valor);
+            espacios(ancho - valor.length());
+        }
+        return bloque;
+    }
+
+    /**
+     * Agrega un número alineado a la derecha en una columna.
+     *
+     * @param numero El número (puede ser null).
+     * @param ancho Ancho de la columna.
+     * @return El búfer, para encadenar llamadas.
+     */
+    private StringBuilder numero(Integer numero, int ancho) {
+        if (numero == null) {
+            espacios(ancho);
+            return bloque;
+        }
+        int valor = numero;
+        espacios(ancho - cantidadDeCaracteres(valor)); // El relleno va antes, sin desplazar los dígitos
+        bloque.append(valor);
+        return bloque;
+    }
+
+    /**
+     * Calcula cuántos caracteres ocupa un número escrito en decimal, signo incluido.
+     *
+     * @param numero El número.
+     * @return La cantidad de caracteres.
+     */
+    static int cantidadDeCaracteres(int numero) {
+        int cantidad = numero < 0 ? 2 : 1;
+        long resto = Math.abs((long) numero);
+        while (resto >= 10) {
+            resto /= 10;
+            cantidad++;
+        }
+        return cantidad;
+    }
+
+    /**
+     * Agrega espacios al búfer.
+     *
+     * @param cantidad Cantidad de espacios.
+     */
+    private void espacios(int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            bloque.append(' ');
+        }
+    }
+
+    /**
+     * Envía el contenido del búfer a la salida y lo vacía para reutilizarlo.
+     *
+     * @throws IOException Si falla la escritura.
+     */
+    private void enviarBloque() throws IOException {
+        int longitud = bloque.length();
+        if (longitud == 0) {
+            return;
+        }
+        if (caracteres.length < longitud) {
+            caracteres = new char[longitud];
+        }
+        bloque.getChars(0, longitud, caracteres, 0);
+        salida.write(caracteres, 0, longitud);
+        bloque.setLength(0);
+    }
+}
@@ -6,7 +6,7 @@ import java.util.List;
 
 /**
  * Representa los datos de un libro obtenidos de una fuente externa, como una API.
- * Incluye el título del libro, los autores, los temas, los idiomas y el contador de descargas.
+ * Incluye el identificador de Gutendex, el título del libro, los autores, los temas, los idiomas y el contador de descargas.
  *
  * Esta clase está diseñada para manejar la deserialización de un objeto JSON que
  * contiene información relacionada con un libro, mapeando las propiedades
@@ -14,6 +14,7 @@ import java.util.List;
  */
 @JsonIgnoreProperties(ignoreUnknown = true) // Ignora cualquier propiedad desconocida al deserializar JSON.
 public record DatosLibro(
+        @JsonAlias("id") Long idGutendex, // Mapea la propiedad JSON "id" al campo "idGutendex".
         @JsonAlias("title") String titulo, // Mapea la propiedad JSON "title" al campo "titulo".
         @JsonAlias("authors") List<DatosAutor> autores, // Mapea la propiedad JSON "authors" al campo "autores".
         @JsonAlias("subjects") List<String> temas, // Mapea la propiedad JSON "subjects" al campo "temas".
@@ -3,6 +3,7 @@ package com.alura.literalura.modelo.entidad;
 import com.alura.literalura.modelo.DatosAutor;
 import jakarta.persistence.*;
 
+import java.util.Locale;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -26,6 +27,26 @@ public class Autor {
      */
     private String nombre;
 
+    /**
+     * Apellido(s) del autor: la parte anterior a la coma en el formato "Apellido, Nombre".
+     */
+    private String apellido;
+
+    /**
+     * Nombre(s) de pila del autor. Es null si el nombre no tiene el formato "Apellido, Nombre".
+     */
+    private String nombrePila;
+
+    /**
+     * Apellido en minúsculas, usado para búsquedas por prefijo.
+     */
+    private String apellidoNormalizado;
+
+    /**
+     * Nombre completo en orden natural ("Nombre Apellido") y en minúsculas, usado para búsquedas por prefijo.
+     */
+    private String nombreNormalizado;
+
     /**
      * Año de nacimiento del autor.
      */
@@ -59,11 +80,65 @@ public class Autor {
      * @param autor Objeto que contiene los datos del autor.
      */
     public Autor(DatosAutor autor) {
-        this.nombre = autor.nombre();
+        setNombre(autor.nombre());
         this.anhioDeNacimiento = autor.anhioDeNacimiento();
         this.anhioDeFallecimiento = autor.anhioDeFallecimiento();
     }
 
+    /**
+     * Separa el nombre en apellido y nombre de pila, y calcula sus formas normalizadas.
+     * Las aclaraciones entre paréntesis que agrega Gutendex se descartan del nombre de pila.
+     * Reemplaza por completo las partes calculadas para un nombre anterior.
+     * @param nombreCompleto Nombre en el formato "Apellido, Nombre" (o un único nombre); puede ser null.
+     */
+    private void asignarPartesDelNombre(String nombreCompleto) {
+        this.apellido = null;
+        this.nombrePila = null;
+        this.apellidoNormalizado = null;
+        this.nombreNormalizado = null;
+        if (nombreCompleto == null) {
+            return;
+        }
+        int coma = nombreCompleto.indexOf(',');
+        if (coma >= 0) {
+            this.apellido = nombreCompleto.substring(0, coma).trim();
+            String pila = nombreCompleto.substring(coma + 1).replaceAll("\\(.*\\)", "").trim();
+            this.nombrePila = pila.isEmpty() ? null : pila;
+        } else {
+            this.apellido = nombreCompleto.trim();
+        }
+        this.apellidoNormalizado = normalizar(apellido);
+        this.nombreNormalizado = normalizar(nombrePila == null ? apellido : nombrePila + " " + apellido);
+    }
+
+    /**
+     * Normaliza un texto para compararlo con los nombres indexados.
+     * @param texto Texto a normalizar (puede ser null).
+     * @return El texto sin espacios en los extremos y en minúsculas, o null si el texto es null.
+     */
+    public static String normalizar(String texto) {
+        return texto == null ? null : texto.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Normaliza un texto y escapa los comodines de LIKE ("%", "_" y "\"), para usarlo como
+     * prefijo literal en las consultas que terminan en {@code LIKE :prefijo% ESCAPE '\'}.
+     * @param texto Texto ingresado por el usuario; null equivale a un texto vacío.
+     * @return El prefijo normalizado y escapado.
+     */
+    public static String prefijoDeBusqueda(String texto) {
+        String normalizado = texto == null ? "" : normalizar(texto);
+        StringBuilder prefijo = new StringBuilder(normalizado.length() + 4);
+        for (int i = 0; i < normalizado.length(); i++) {
+            char c = normalizado.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                prefijo.append('\\');
+            }
+            prefijo.append(c);
+        }
+        return prefijo.toString();
+    }
+
     // Métodos getter y setter para acceder y modificar las propiedades del autor.
 
     public Long getId() {
@@ -78,8 +153,30 @@ public class Autor {
         return nombre;
     }
 
+    /**
+     * Cambia el nombre del autor y recalcula sus partes y formas normalizadas,
+     * para que las búsquedas por prefijo sigan encontrándolo.
+     * @param nombre Nombre en el formato "Apellido, Nombre" (o un único nombre).
+     */
     public void setNombre(String nombre) {
         this.nombre = nombre;
+        asignarPartesDelNombre(nombre);
+    }
+
+    public String getApellido() {
+        return apellido;
+    }
+
+    public String getNombrePila() {
+        return nombrePila;
+    }
+
+    public String getApellidoNormalizado() {
+        return apellidoNormalizado;
+    }
+
+    public String getNombreNormalizado() {
+        return nombreNormalizado;
     }
 
     public Integer getAnhioDeNacimiento() {
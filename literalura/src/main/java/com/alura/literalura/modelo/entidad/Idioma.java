@@ -1,51 +1,87 @@
 package com.alura.literalura.modelo.entidad;
 
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
 /**
- * Representa un conjunto de idiomas disponibles en el sistema.
- * Cada idioma tiene una abreviatura y un nombre descriptivo.
+ * Representa el idioma de un libro mediante su código ISO 639 (de dos o tres letras),
+ * que es la forma en que lo informa Gutendex.
+ * Cada idioma tiene una abreviatura y un nombre descriptivo en español.
+ *
+ * Las instancias son únicas por código: {@link #fromString(String)} las obtiene de una
+ * tabla indexada por código, por lo que la búsqueda es O(1).
  */
-public enum Idioma {
-    INGLES("en", "Inglés"),       // Idioma inglés con su abreviatura "en"
-    ESPANIOL("es", "Español"),   // Idioma español con su abreviatura "es"
-    FRANCES("fr", "Francés"),    // Idioma francés con su abreviatura "fr"
-    PORTUGUES("pt", "Portugués"); // Idioma portugués con su abreviatura "pt"
+public final class Idioma {
+
+    /**
+     * Idioma usado para los nombres descriptivos.
+     */
+    private static final Locale LOCALE_NOMBRES = Locale.forLanguageTag("es");
+
+    /**
+     * Formato válido de un código ISO 639-1 o 639-2/3.
+     */
+    private static final Pattern FORMATO_CODIGO = Pattern.compile("[a-zA-Z]{2,3}");
+
+    /**
+     * Idiomas conocidos, indexados por su abreviatura en minúsculas.
+     */
+    private static final Map<String, Idioma> IDIOMAS = new ConcurrentHashMap<>();
+
+    static {
+        for (String codigo : Locale.getISOLanguages()) { // Todos los códigos ISO 639-1.
+            IDIOMAS.put(codigo, new Idioma(codigo));
+        }
+    }
+
+    public static final Idioma INGLES = fromString("en");       // Idioma inglés con su abreviatura "en"
+    public static final Idioma ESPANIOL = fromString("es");     // Idioma español con su abreviatura "es"
+    public static final Idioma FRANCES = fromString("fr");      // Idioma francés con su abreviatura "fr"
+    public static final Idioma PORTUGUES = fromString("pt");    // Idioma portugués con su abreviatura "pt"
+    public static final Idioma INDETERMINADO = fromString("und"); // Idioma no informado (código ISO 639-2 "und")
 
     /**
-     * Abreviatura del idioma (código ISO 639-1).
+     * Abreviatura del idioma (código ISO 639, en minúsculas).
      */
-    private String abreviatura;
+    private final String abreviatura;
 
     /**
      * Nombre del idioma en su forma completa.
      */
-    private String nombre;
+    private final String nombre;
 
     /**
-     * Constructor privado para inicializar los valores del enum.
+     * Constructor privado: las instancias se obtienen con {@link #fromString(String)}.
      *
-     * @param abreviatura Código abreviado del idioma.
-     * @param nombre Nombre descriptivo del idioma.
+     * @param abreviatura Código del idioma en minúsculas.
      */
-    Idioma(String abreviatura, String nombre) {
+    private Idioma(String abreviatura) {
         this.abreviatura = abreviatura;
-        this.nombre = nombre;
+        String nombreLocal = "und".equals(abreviatura)
+                ? "indeterminado"
+                : Locale.forLanguageTag(abreviatura).getDisplayLanguage(LOCALE_NOMBRES);
+        this.nombre = nombreLocal.isEmpty()
+                ? abreviatura
+                : nombreLocal.substring(0, 1).toUpperCase(LOCALE_NOMBRES) + nombreLocal.substring(1);
     }
 
     /**
      * Busca un idioma por su abreviatura (insensible a mayúsculas/minúsculas).
+     * Acepta cualquier código ISO 639 de dos o tres letras.
      *
      * @param text Abreviatura del idioma.
-     * @return Instancia del enum que coincide con la abreviatura.
-     * @throws IllegalArgumentException Si no se encuentra ningún idioma con esa abreviatura.
+     * @return Instancia que corresponde a la abreviatura.
+     * @throws IllegalArgumentException Si el texto no tiene el formato de un código de idioma.
      */
     public static Idioma fromString(String text) {
-        for (Idioma idioma : Idioma.values()) { // Itera por todos los valores del enum.
-            if (idioma.abreviatura.equalsIgnoreCase(text)) { // Compara ignorando mayúsculas/minúsculas.
-                return idioma;
-            }
+        if (text == null || !FORMATO_CODIGO.matcher(text.trim()).matches()) {
+            // Lanza una excepción si el texto no puede ser un código de idioma.
+            throw new IllegalArgumentException("Ningún idioma encontrado: " + text);
         }
-        // Lanza una excepción si no se encuentra un idioma correspondiente.
-        throw new IllegalArgumentException("Ningún idioma encontrado: " + text);
+        return IDIOMAS.computeIfAbsent(text.trim().toLowerCase(Locale.ROOT), Idioma::new);
     }
 
     /**
@@ -67,6 +103,16 @@ public enum Idioma {
         return abreviatura + " - " + nombre;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Idioma otro && abreviatura.equals(otro.abreviatura));
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(abreviatura);
+    }
+
     /**
      * Devuelve la abreviatura del idioma como representación en texto.
      *
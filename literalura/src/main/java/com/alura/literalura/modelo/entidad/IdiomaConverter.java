@@ -0,0 +1,22 @@
+package com.alura.literalura.modelo.entidad;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Convierte un {@link Idioma} en su código ISO 639 para almacenarlo en la base de datos,
+ * y viceversa. El código es también la clave de partición de la tabla de libros.
+ */
+@Converter
+public class IdiomaConverter implements AttributeConverter<Idioma, String> {
+
+    @Override
+    public String convertToDatabaseColumn(Idioma idioma) {
+        return idioma == null ? null : idioma.toString();
+    }
+
+    @Override
+    public Idioma convertToEntityAttribute(String codigo) {
+        return codigo == null ? null : Idioma.fromString(codigo);
+    }
+}
@@ -11,19 +11,24 @@ import java.util.stream.Collectors;
  * idioma, contador de descargas y autores relacionados.
  */
 @Entity
-@Table(name = "libros")
+@Table(name = "libros", uniqueConstraints = { // Únicos por idioma, que es la clave de partición.
+        @UniqueConstraint(columnNames = {"titulo", "idioma"}),
+        @UniqueConstraint(columnNames = {"gutendex_id", "idioma"})
+})
 public class Libro {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id; // Identificador único del libro (autogenerado).
 
-    @Column(unique = true)
-    private String titulo; // Título único del libro.
+    @Column(name = "gutendex_id")
+    private Long gutendexId; // Identificador del libro en la API de Gutendex.
+
+    private String titulo; // Título del libro (único por idioma).
 
     private String temas; // Temas relacionados con el libro, almacenados como una cadena separada por ";".
 
-    @Enumerated(EnumType.STRING)
-    private Idioma idioma; // Idioma del libro representado por el enum Idioma.
+    @Convert(converter = IdiomaConverter.class)
+    private Idioma idioma; // Idioma del libro, almacenado como código ISO 639 (clave de partición).
 
     private Integer contadorDeDescargas; // Número de veces que se ha descargado el libro.
 
@@ -46,12 +51,15 @@ public class Libro {
      * @param libro Datos del libro proporcionados por el modelo.
      */
     public Libro(DatosLibro libro) {
+        this.gutendexId = libro.idGutendex(); // Asigna el identificador de Gutendex.
         this.titulo = libro.titulo(); // Asigna el título.
         this.temas = libro.temas().stream()
                 .collect(Collectors.joining(";")); // Convierte la lista de temas en una cadena separada por ";".
 
-        // Obtiene el primer idioma de la lista y lo convierte al enum Idioma.
-        this.idioma = Idioma.fromString(libro.idiomas().get(0));
+        // Obtiene el primer idioma de la lista, o el idioma indeterminado si no se informó ninguno.
+        this.idioma = libro.idiomas() == null || libro.idiomas().isEmpty()
+                ? Idioma.INDETERMINADO
+                : Idioma.fromString(libro.idiomas().get(0));
 
         this.contadorDeDescargas = libro.contadorDeDescargas(); // Asigna el contador de descargas.
 
@@ -70,6 +78,14 @@ public class Libro {
         this.id = id;
     }
 
+    public Long getGutendexId() {
+        return gutendexId;
+    }
+
+    public void setGutendexId(Long gutendexId) {
+        this.gutendexId = gutendexId;
+    }
+
     public String getTitulo() {
         return titulo;
     }
@@ -0,0 +1,60 @@
+package com.alura.literalura.modelo.entidad;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Representa una marca de agua persistente: el último valor procesado de una fuente,
+ * como el mayor identificador de Gutendex ya ingerido.
+ */
+@Entity
+@Table(name = "marcas_de_agua")
+public class MarcaDeAgua {
+
+    /**
+     * Nombre que identifica la marca de agua.
+     */
+    @Id
+    private String nombre;
+
+    /**
+     * Último valor procesado.
+     */
+    private Long valor;
+
+    /**
+     * Constructor por defecto requerido por JPA.
+     */
+    public MarcaDeAgua() {
+    }
+
+    /**
+     * Constructor que inicializa la marca de agua con su nombre y valor.
+     *
+     * @param nombre Nombre de la marca de agua.
+     * @param valor Último valor procesado.
+     */
+    public MarcaDeAgua(String nombre, Long valor) {
+        this.nombre = nombre;
+        this.valor = valor;
+    }
+
+    // Métodos getter y setter para acceder y modificar las propiedades de la marca de agua.
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public Long getValor() {
+        return valor;
+    }
+
+    public void setValor(Long valor) {
+        this.valor = valor;
+    }
+}
@@ -1,6 +1,8 @@
 package com.alura.literalura.repositorio;
 
 import com.alura.literalura.modelo.entidad.Autor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
@@ -13,6 +15,15 @@ import java.util.List;
  */
 public interface AutorRepository extends JpaRepository<Autor, Long> {
 
+    /**
+     * Obtiene todos los autores junto con sus libros en una sola consulta.
+     *
+     * @return Lista de todos los autores.
+     */
+    @Override
+    @EntityGraph(attributePaths = "libros")
+    List<Autor> findAll();
+
     /**
      * Obtiene una lista de autores que estuvieron vivos en un año específico.
      * La consulta selecciona autores cuyo año de nacimiento es menor o igual al año proporcionado
@@ -21,6 +32,28 @@ public interface AutorRepository extends JpaRepository<Autor, Long> {
      * @param anio El año específico en el que los autores deben haber estado vivos.
      * @return Lista de autores que estuvieron vivos en el año indicado.
      */
+    @EntityGraph(attributePaths = "libros")
     @Query("SELECT a FROM Autor a WHERE a.anhioDeNacimiento <= :anio AND a.anhioDeFallecimiento > :anio")
     List<Autor> obtenerAutoresVivosPorAnio(int anio);
+
+    /**
+     * Busca autores cuyo apellido o nombre completo (en orden natural) comience con el prefijo.
+     * Ambas columnas están normalizadas e indexadas, por lo que la búsqueda usa el índice.
+     *
+     * @param prefijo Prefijo normalizado y escapado (ver {@link Autor#prefijoDeBusqueda(String)}).
+     * @return Lista de autores que coinciden, ordenados por apellido.
+     */
+    @EntityGraph(attributePaths = "libros")
+    @Query("SELECT a FROM Autor a WHERE a.apellidoNormalizado LIKE :prefijo% ESCAPE '\\' OR a.nombreNormalizado LIKE :prefijo% ESCAPE '\\' ORDER BY a.apellidoNormalizado")
+    List<Autor> buscarPorPrefijo(String prefijo);
+
+    /**
+     * Obtiene los nombres de autor que comienzan con el prefijo, para autocompletar.
+     *
+     * @param prefijo Prefijo normalizado y escapado (ver {@link Autor#prefijoDeBusqueda(String)}).
+     * @param limite Cantidad máxima de sugerencias.
+     * @return Lista de nombres distintos, en orden alfabético.
+     */
+    @Query("SELECT DISTINCT a.nombre FROM Autor a WHERE a.apellidoNormalizado LIKE :prefijo% ESCAPE '\\' OR a.nombreNormalizado LIKE :prefijo% ESCAPE '\\' ORDER BY a.nombre")
+    List<String> autocompletarNombres(String prefijo, Limit limite);
 }
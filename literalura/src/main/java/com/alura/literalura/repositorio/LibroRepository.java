@@ -1,6 +1,7 @@
 package com.alura.literalura.repositorio;
 import com.alura.literalura.modelo.entidad.Idioma;
 import com.alura.literalura.modelo.entidad.Libro;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import java.util.List;
@@ -13,6 +14,23 @@ import java.util.Optional;
  */
 public interface LibroRepository extends JpaRepository<Libro, Long> {
 
+    /**
+     * Obtiene los idiomas de los libros almacenados.
+     *
+     * @return Lista de idiomas distintos presentes en la base de datos.
+     */
+    @Query("SELECT DISTINCT l.idioma FROM Libro l")
+    List<Idioma> obtenerIdiomasRegistrados();
+
+    /**
+     * Obtiene todos los libros junto con sus autores en una sola consulta.
+     *
+     * @return Lista de todos los libros.
+     */
+    @Override
+    @EntityGraph(attributePaths = "autores")
+    List<Libro> findAll();
+
     /**
      * Obtiene una lista de libros que están en un idioma específico.
      * La consulta selecciona libros cuyo campo de idioma coincida con el idioma proporcionado.
@@ -20,15 +38,72 @@ public interface LibroRepository extends JpaRepository<Libro, Long> {
      * @param idioma El idioma por el cual se filtran los libros.
      * @return Lista de libros que están en el idioma especificado.
      */
+    @EntityGraph(attributePaths = "autores")
     @Query("SELECT l FROM Libro l WHERE l.idioma = :idioma")
     List<Libro> obtenerLibrosPorIdioma(Idioma idioma);
 
+    /**
+     * Obtiene los libros de los autores cuyo apellido o nombre completo comience con el prefijo.
+     * El filtro va en una subconsulta para que el grafo cargue todos los autores de cada libro,
+     * no solo los que coinciden con el prefijo.
+     *
+     * @param prefijo Prefijo normalizado y escapado del nombre del autor
+     *                (ver {@link com.alura.literalura.modelo.entidad.Autor#prefijoDeBusqueda(String)}).
+     * @return Lista de libros de los autores que coinciden.
+     */
+    @EntityGraph(attributePaths = "autores")
+    @Query("""
+            SELECT l FROM Libro l
+            WHERE EXISTS (SELECT a FROM l.autores a
+                          WHERE a.apellidoNormalizado LIKE :prefijo% ESCAPE '\\'
+                             OR a.nombreNormalizado LIKE :prefijo% ESCAPE '\\')
+            """)
+    List<Libro> obtenerLibrosPorAutor(String prefijo);
+
     /**
      * Busca un libro por su título.
      * Utiliza el método estándar de Spring Data JPA para realizar la búsqueda de manera eficiente.
+     * Como el título es único por idioma, puede haber varios libros con el mismo título; se devuelve el primero.
      *
      * @param titulo El título del libro a buscar.
      * @return Un {@link Optional} que contiene el libro si se encuentra, o vacío si no se encuentra.
      */
-    Optional<Libro> findByTitulo(String titulo);
+    Optional<Libro> findFirstByTitulo(String titulo);
+
+    /**
+     * Busca un libro ya guardado que corresponda al mismo libro de Gutendex: con el mismo
+     * identificador de Gutendex o, si no lo hay, con el mismo título en el mismo idioma
+     * (las dos claves únicas de la tabla). Si ambas coinciden con libros distintos, se
+     * prefiere el del identificador.
+     *
+     * @param gutendexId Identificador del libro en Gutendex (puede ser null).
+     * @param titulo El título del libro.
+     * @param idioma El idioma del libro.
+     * @return Un {@link Optional} con el libro existente, o vacío si no está guardado.
+     */
+    @Query("""
+            SELECT l FROM Libro l
+            WHERE l.gutendexId = :gutendexId OR (l.titulo = :titulo AND l.idioma = :idioma)
+            ORDER BY CASE WHEN l.gutendexId = :gutendexId THEN 0 ELSE 1 END
+            LIMIT 1
+            """)
+    Optional<Libro> buscarExistente(Long gutendexId, String titulo, Idioma idioma);
+
+    /**
+     * Busca el libro cuyo título sea más parecido al proporcionado, según la similitud
+     * de trigramas de PostgreSQL (extensión pg_trgm). El operador "%" aprovecha el índice
+     * de trigramas y la similitud mínima descarta las coincidencias débiles.
+     *
+     * @param titulo El título a comparar.
+     * @param umbral Similitud mínima (entre 0 y 1) para considerar que los títulos coinciden.
+     * @return Un {@link Optional} con el libro más parecido, o vacío si ninguno supera el umbral.
+     */
+    @Query(value = """
+            SELECT * FROM libros
+            WHERE lower(titulo) % lower(:titulo)
+              AND similarity(lower(titulo), lower(:titulo)) >= :umbral
+            ORDER BY similarity(lower(titulo), lower(:titulo)) DESC
+            LIMIT 1
+            """, nativeQuery = true)
+    Optional<Libro> buscarTituloSimilar(String titulo, double umbral);
 }
@@ -0,0 +1,11 @@
+package com.alura.literalura.repositorio;
+
+import com.alura.literalura.modelo.entidad.MarcaDeAgua;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repositorio para la entidad MarcaDeAgua.
+ * Extiende JpaRepository, lo que permite realizar operaciones CRUD automáticamente.
+ */
+public interface MarcaDeAguaRepository extends JpaRepository<MarcaDeAgua, String> {
+}
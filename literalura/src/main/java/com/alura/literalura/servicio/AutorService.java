@@ -1,9 +1,12 @@
 package com.alura.literalura.servicio;
 
 import com.alura.literalura.dominio.AutorDto;
+import com.alura.literalura.modelo.entidad.Autor;
 import com.alura.literalura.repositorio.AutorRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -23,6 +26,7 @@ public class AutorService {
      *
      * @return Una lista de AutorDto con la información de los autores.
      */
+    @Transactional(readOnly = true)
     public List<AutorDto> obtenerAutores() {
         // Llamada al repositorio para obtener todos los autores y mapearlos a DTOs
         return repository.findAll().stream()
@@ -36,10 +40,36 @@ public class AutorService {
      * @param anio El año en el que se desea saber qué autores estaban vivos.
      * @return Una lista de AutorDto con los autores vivos en el año proporcionado.
      */
+    @Transactional(readOnly = true)
     public List<AutorDto> obtenerAutoresVivosPorAnio(int anio) {
         // Llamada al repositorio para obtener los autores vivos en el año especificado
         return repository.obtenerAutoresVivosPorAnio(anio).stream()
                 .map(autor -> new AutorDto(autor))  // Convierte cada Autor en un AutorDto
                 .toList();  // Recoge los resultados en una lista
     }
+
+    /**
+     * Busca autores por el comienzo de su apellido o de su nombre completo.
+     *
+     * @param texto Texto ingresado por el usuario (por ejemplo "austen" o "jane au").
+     * @return Una lista de AutorDto con los autores que coinciden.
+     */
+    @Transactional(readOnly = true)
+    public List<AutorDto> buscarAutores(String texto) {
+        return repository.buscarPorPrefijo(Autor.prefijoDeBusqueda(texto)).stream()
+                .map(autor -> new AutorDto(autor))  // Convierte cada Autor en un AutorDto
+                .toList();
+    }
+
+    /**
+     * Sugiere nombres de autores que comienzan con el texto ingresado.
+     *
+     * @param prefijo Comienzo del apellido o del nombre del autor.
+     * @param cantidad Cantidad máxima de sugerencias.
+     * @return Una lista con los nombres sugeridos.
+     */
+    @Transactional(readOnly = true)
+    public List<String> autocompletarAutores(String prefijo, int cantidad) {
+        return repository.autocompletarNombres(Autor.prefijoDeBusqueda(prefijo), Limit.of(cantidad));
+    }
 }
@@ -0,0 +1,179 @@
+package com.alura.literalura.servicio;
+
+import com.alura.literalura.servicio.provedor.ConsumoAPI;
+import com.alura.literalura.servicio.provedor.ICacheRespuestas;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Caché de respuestas de la API almacenada en la base de datos compartida (tabla UNLOGGED
+ * "cache_respuestas"), para que varias instancias de la aplicación no descarguen las mismas
+ * páginas. Cada entrada vence según un TTL y las descargas en curso se coordinan con una
+ * reserva temporal por URL.
+ *
+ * Si la base de datos falla, la caché se comporta como vacía y la aplicación sigue usando la red.
+ */
+@Service
+public class CacheRespuestasService implements ICacheRespuestas {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheRespuestasService.class);
+
+    // Respuesta vigente de una URL
+    private static final String SQL_BUSCAR =
+            "SELECT cuerpo FROM cache_respuestas WHERE url = ? AND cuerpo IS NOT NULL AND expira > now()";
+
+    // Reserva la URL si nadie la tiene reservada y no hay una respuesta vigente
+    private static final String SQL_RESERVAR = """
+            INSERT INTO cache_respuestas (url, reservada_por, reservada_hasta)
+            VALUES (?, ?, now() + make_interval(secs => ?))
+            ON CONFLICT (url) DO UPDATE
+            SET reservada_por = EXCLUDED.reservada_por, reservada_hasta = EXCLUDED.reservada_hasta
+            WHERE (cache_respuestas.reservada_hasta IS NULL OR cache_respuestas.reservada_hasta < now())
+              AND (cache_respuestas.cuerpo IS NULL OR cache_respuestas.expira <= now())
+            """;
+
+    // Reserva vigente de una URL (para saber hasta cuándo esperar)
+    private static final String SQL_RESERVA_VIGENTE =
+            "SELECT count(*) FROM cache_respuestas WHERE url = ? AND reservada_hasta > now()";
+
+    // Guarda la respuesta y libera la reserva
+    private static final String SQL_GUARDAR = """
+            INSERT INTO cache_respuestas (url, cuerpo, expira)
+            VALUES (?, ?, now() + make_interval(secs => ?))
+            ON CONFLICT (url) DO UPDATE
+            SET cuerpo = EXCLUDED.cuerpo, expira = EXCLUDED.expira,
+                reservada_por = NULL, reservada_hasta = NULL
+            """;
+
+    // Libera la reserva propia de una URL
+    private static final String SQL_LIBERAR =
+            "UPDATE cache_respuestas SET reservada_por = NULL, reservada_hasta = NULL WHERE url = ? AND reservada_por = ?";
+
+    // Elimina las entradas vencidas que no están reservadas
+    private static final String SQL_PURGAR = """
+            DELETE FROM cache_respuestas
+            WHERE (expira IS NULL OR expira < now())
+              AND (reservada_hasta IS NULL OR reservada_hasta < now())
+            """;
+
+    // Acceso JDBC directo a la tabla de caché
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${literalura.cache.habilitada:false}")
+    private boolean habilitada; // Indica si ConsumoAPI debe usar esta caché.
+
+    @Value("${literalura.cache.ttl-segundos:3600}")
+    private int ttlSegundos; // Vigencia de cada respuesta guardada.
+
+    @Value("${literalura.cache.reserva-segundos:30}")
+    private int reservaSegundos; // Duración máxima de la reserva de una descarga.
+
+    @Value("${literalura.cache.espera-ms:200}")
+    private long esperaMs; // Intervalo entre consultas mientras otra instancia descarga.
+
+    private final String instancia = UUID.randomUUID().toString(); // Identificador de esta instancia.
+
+    /**
+     * Registra la caché en el singleton de consumo de la API, si está habilitada.
+     */
+    @PostConstruct
+    public void registrar() {
+        if (habilitada) {
+            ConsumoAPI.getInstance().setCache(this);
+        }
+    }
+
+    @Override
+    public Optional<byte[]> buscar(String url) {
+        try {
+            List<byte[]> cuerpos = jdbcTemplate.query(SQL_BUSCAR, (rs, fila) -> rs.getBytes(1), url);
+            return cuerpos.stream().findFirst();
+        } catch (DataAccessException e) {
+            log.warn("Caché no disponible: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Si la base de datos no responde, devuelve true: cada instancia descarga la URL por su
+     * cuenta. Mientras dure la falla se pierde la garantía de una sola descarga por URL, a
+     * cambio de que la aplicación siga funcionando sin la caché.
+     */
+    @Override
+    public boolean reservar(String url) {
+        try {
+            return jdbcTemplate.update(SQL_RESERVAR, url, instancia, reservaSegundos) == 1;
+        } catch (DataAccessException e) {
+            return true; // Sin caché disponible, esta instancia descarga por su cuenta
+        }
+    }
+
+    @Override
+    public Optional<byte[]> esperar(String url) {
+        try {
+            while (true) {
+                Thread.sleep(esperaMs);
+                Optional<byte[]> cuerpo = buscar(url);
+                if (cuerpo.isPresent()) {
+                    return cuerpo;
+                }
+                Integer reservas = jdbcTemplate.queryForObject(SQL_RESERVA_VIGENTE, Integer.class, url);
+                if (reservas == null || reservas == 0) {
+                    return Optional.empty(); // La reserva venció o se liberó sin respuesta
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restablecer el estado de interrupción
+            return Optional.empty();
+        } catch (DataAccessException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void guardar(String url, byte[] cuerpoComprimido) {
+        try {
+            jdbcTemplate.update(SQL_GUARDAR, url, cuerpoComprimido, ttlSegundos);
+        } catch (DataAccessException e) {
+            log.warn("No se pudo guardar en caché: {}", e.getMessage());
+            liberar(url); // Las demás instancias no deben esperar una respuesta que no llegará
+        }
+    }
+
+    @Override
+    public void liberar(String url) {
+        try {
+            jdbcTemplate.update(SQL_LIBERAR, url, instancia);
+        } catch (DataAccessException e) {
+            // La reserva vencerá sola
+        }
+    }
+
+    /**
+     * Tarea programada que elimina las respuestas vencidas. No hace nada si la caché está deshabilitada.
+     */
+    @Scheduled(fixedDelayString = "${literalura.cache.purga-ms:600000}")
+    public void purgarVencidas() {
+        if (!habilitada) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(SQL_PURGAR);
+        } catch (DataAccessException e) {
+            log.warn("No se pudo purgar la caché: {}", e.getMessage());
+        }
+    }
+}
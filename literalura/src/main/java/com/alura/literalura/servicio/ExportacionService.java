@@ -0,0 +1,301 @@
+package com.alura.literalura.servicio;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Servicio que exporta el catálogo (libros o autores) a archivos NDJSON o CSV.
+ * Las filas se leen con un cursor de solo avance y se escriben a medida que llegan,
+ * de modo que nunca hay en memoria más de un lote de lectura.
+ *
+ * Cada exportación se escribe en un archivo temporal del mismo directorio que, al terminar,
+ * reemplaza al destino con un movimiento atómico: si la exportación falla, el archivo de
+ * destino anterior queda intacto y nunca se ve un archivo a medio escribir.
+ */
+@Service
+public class ExportacionService {
+
+    /**
+     * Formatos de exportación disponibles.
+     */
+    public enum Formato { NDJSON, CSV }
+
+    // Consulta de libros con sus autores; la subconsulta correlacionada evita agrupar toda la tabla
+    private static final String SQL_LIBROS = """
+            SELECT l.id, l.gutendex_id, l.titulo, l.idioma, l.contador_de_descargas, l.temas,
+                   (SELECT string_agg(a.nombre, '; ' ORDER BY a.nombre)
+                    FROM libros_autores la JOIN autores a ON a.id = la.autor_id
+                    WHERE la.libro_id = l.id) AS autores
+            FROM libros l
+            ORDER BY l.id
+            """;
+
+    // Consulta de autores
+    private static final String SQL_AUTORES = """
+            SELECT id, nombre, anhio_de_nacimiento, anhio_de_fallecimiento
+            FROM autores
+            ORDER BY id
+            """;
+
+    // Tamaño de los búferes de escritura
+    private static final int TAMANIO_BUFER = 64 * 1024;
+
+    // Acceso JDBC directo para leer con cursor
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${literalura.exportacion.tamanio-lote:500}")
+    private int tamanioLote; // Filas que trae el cursor en cada viaje a la base de datos.
+
+    private final JsonFactory jsonFactory = new JsonFactory(); // Generador de JSON en streaming.
+
+    /**
+     * Exporta todos los libros almacenados.
+     *
+     * @param destino Archivo de destino.
+     * @param formato Formato de salida.
+     * @param comprimir Indica si la salida se comprime con gzip.
+     * @return La cantidad de filas exportadas.
+     */
+    @Transactional(readOnly = true)
+    public long exportarLibros(Path destino, Formato formato, boolean comprimir) {
+        return exportar(SQL_LIBROS, destino, formato, comprimir);
+    }
+
+    /**
+     * Exporta todos los autores almacenados.
+     *
+     * @param destino Archivo de destino.
+     * @param formato Formato de salida.
+     * @param comprimir Indica si la salida se comprime con gzip.
+     * @return La cantidad de filas exportadas.
+     */
+    @Transactional(readOnly = true)
+    public long exportarAutores(Path destino, Formato formato, boolean comprimir) {
+        return exportar(SQL_AUTORES, destino, formato, comprimir);
+    }
+
+    /**
+     * Ejecuta la consulta con un cursor de solo avance y escribe cada fila en el archivo.
+     * Debe ejecutarse dentro de una transacción para que el controlador de PostgreSQL
+     * respete el tamaño de lote en lugar de traer todo el resultado.
+     *
+     * @param sql Consulta a exportar.
+     * @param destino Archivo de destino.
+     * @param formato Formato de salida.
+     * @param comprimir Indica si la salida se comprime con gzip.
+     * @return La cantidad de filas exportadas.
+     */
+    private long exportar(String sql, Path destino, Formato formato, boolean comprimir) {
+        // El temporal va en el mismo directorio para que el movimiento final sea un renombrado
+        Path temporal = destino.resolveSibling("." + destino.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            long total;
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE);
+                 Writer escritor = new BufferedWriter(
+                         new OutputStreamWriter(abrirSalida(canal, comprimir), StandardCharsets.UTF_8),
+                         TAMANIO_BUFER)) {
+                EscritorDeFilas filas = formato == Formato.NDJSON
+                        ? new EscritorNdjson(jsonFactory.createGenerator(escritor))
+                        : new EscritorCsv(escritor);
+                total = jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement(sql,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(tamanioLote);
+                    return ps;
+                }, rs -> {
+                    try {
+                        // Los metadatos están disponibles aunque no haya filas (el CSV lleva encabezado igual)
+                        ResultSetMetaData columnas = rs.getMetaData();
+                        filas.iniciar(columnas);
+                        long escritas = 0;
+                        while (rs.next()) {
+                            filas.escribir(rs, columnas);
+                            escritas++;
+                        }
+                        return escritas;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                filas.terminar();
+            }
+            reemplazar(temporal, destino);
+            return total;
+        } catch (IOException | UncheckedIOException | DataAccessException e) {
+            try {
+                Files.deleteIfExists(temporal);
+            } catch (IOException alBorrar) {
+                e.addSuppressed(alBorrar);
+            }
+            throw new RuntimeException("Error al exportar a " + destino + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reemplaza el destino por el archivo temporal con un movimiento atómico, o con uno común
+     * si el sistema de archivos no admite movimientos atómicos.
+     *
+     * @param temporal Archivo temporal ya completo y cerrado.
+     * @param destino Archivo de destino.
+     * @throws IOException Si no se puede mover el archivo.
+     */
+    private void reemplazar(Path temporal, Path destino) throws IOException {
+        try {
+            Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Abre el flujo de salida sobre el canal, con búfer y compresión opcional.
+     *
+     * @param canal Canal del archivo de destino.
+     * @param comprimir Indica si la salida se comprime con gzip.
+     * @return El flujo de salida.
+     * @throws IOException Si no se puede iniciar la compresión.
+     */
+    private OutputStream abrirSalida(FileChannel canal, boolean comprimir) throws IOException {
+        OutputStream salida = new BufferedOutputStream(Channels.newOutputStream(canal), TAMANIO_BUFER);
+        return comprimir ? new GZIPOutputStream(salida, TAMANIO_BUFER) : salida;
+    }
+
+    /**
+     * Escribe filas de un ResultSet en un formato de salida.
+     */
+    private interface EscritorDeFilas {
+
+        void iniciar(ResultSetMetaData columnas) throws SQLException, IOException;
+
+        void escribir(ResultSet rs, ResultSetMetaData columnas) throws SQLException, IOException;
+
+        void terminar() throws IOException;
+    }
+
+    /**
+     * Escribe cada fila como un objeto JSON por línea, usando las columnas como claves.
+     */
+    private static class EscritorNdjson implements EscritorDeFilas {
+
+        private final JsonGenerator generador; // Generador JSON sobre el archivo de salida.
+
+        EscritorNdjson(JsonGenerator generador) {
+            this.generador = generador;
+            this.generador.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void iniciar(ResultSetMetaData columnas) {
+            // NDJSON no tiene encabezado
+        }
+
+        @Override
+        public void escribir(ResultSet rs, ResultSetMetaData columnas) throws SQLException, IOException {
+            generador.writeStartObject();
+            for (int i = 1; i <= columnas.getColumnCount(); i++) {
+                generador.writeFieldName(columnas.getColumnLabel(i));
+                Object valor = rs.getObject(i);
+                if (valor == null) {
+                    generador.writeNull();
+                } else if (valor instanceof Number numero) {
+                    generador.writeNumber(numero.longValue());
+                } else {
+                    generador.writeString(valor.toString());
+                }
+            }
+            generador.writeEndObject();
+            generador.writeRaw('\n');
+        }
+
+        @Override
+        public void terminar() throws IOException {
+            generador.flush();
+        }
+    }
+
+    /**
+     * Escribe las filas en formato CSV (RFC 4180), con una fila de encabezado aunque no haya filas.
+     */
+    private static class EscritorCsv implements EscritorDeFilas {
+
+        private final Writer escritor; // Escritor sobre el archivo de salida.
+
+        EscritorCsv(Writer escritor) {
+            this.escritor = escritor;
+        }
+
+        @Override
+        public void iniciar(ResultSetMetaData columnas) throws SQLException, IOException {
+            for (int i = 1; i <= columnas.getColumnCount(); i++) {
+                if (i > 1) escritor.write(',');
+                escribirCampo(columnas.getColumnLabel(i));
+            }
+            escritor.write("\r\n");
+        }
+
+        @Override
+        public void escribir(ResultSet rs, ResultSetMetaData columnas) throws SQLException, IOException {
+            for (int i = 1; i <= columnas.getColumnCount(); i++) {
+                if (i > 1) escritor.write(',');
+                Object valor = rs.getObject(i);
+                if (valor != null) {
+                    escribirCampo(valor.toString());
+                }
+            }
+            escritor.write("\r\n");
+        }
+
+        @Override
+        public void terminar() throws IOException {
+            escritor.flush();
+        }
+
+        /**
+         * Escribe un campo, entre comillas si contiene separadores, comillas o saltos de línea.
+         *
+         * @param campo El valor del campo.
+         * @throws IOException Si falla la escritura.
+         */
+        private void escribirCampo(String campo) throws IOException {
+            boolean requiereComillas = campo.indexOf(',') >= 0 || campo.indexOf('"') >= 0
+                    || campo.indexOf('\n') >= 0 || campo.indexOf('\r') >= 0;
+            if (requiereComillas) {
+                escritor.write('"');
+                escritor.write(campo.replace("\"", "\"\""));
+                escritor.write('"');
+            } else {
+                escritor.write(campo);
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.alura.literalura.servicio;
+
+import com.alura.literalura.modelo.entidad.Autor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Servicio que responde cuántos autores almacenados estaban vivos en un año o en un rango de años.
+ * Guarda cuántos autores nacieron y cuántos fallecieron en cada año y, a partir de esos conteos,
+ * arma sumas acumuladas por año. Con ellas cada consulta se resuelve en tiempo constante,
+ * sin consultar la base de datos ni cargar entidades.
+ *
+ * Un autor se considera vivo en un año si nació ese año o antes y falleció después, igual que en
+ * {@link com.alura.literalura.repositorio.AutorRepository#obtenerAutoresVivosPorAnio(int)}.
+ * Los autores sin alguno de los dos años no se cuentan.
+ */
+@Service
+public class HistogramaAutoresService {
+
+    // Nacimientos y fallecimientos agrupados por año
+    private static final String SQL_CONTEOS = """
+            SELECT anhio_de_nacimiento, anhio_de_fallecimiento, count(*) AS cantidad
+            FROM autores
+            WHERE anhio_de_nacimiento IS NOT NULL AND anhio_de_fallecimiento > anhio_de_nacimiento
+            GROUP BY anhio_de_nacimiento, anhio_de_fallecimiento
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate; // Acceso JDBC directo para la carga inicial.
+
+    private final Map<Integer, Integer> nacimientos = new HashMap<>(); // Autores nacidos por año.
+    private final Map<Integer, Integer> fallecimientos = new HashMap<>(); // Autores fallecidos por año.
+    private boolean cargado; // Indica si los conteos ya se leyeron de la base de datos.
+
+    private int primerAnio; // Año que corresponde a la posición 0 de las sumas acumuladas.
+    private int[] nacidosHasta = new int[0]; // Autores nacidos en cada año o antes.
+    private int[] fallecidosHasta = new int[0]; // Autores fallecidos en cada año o antes.
+    private boolean desactualizado = true; // Indica si hay que recalcular las sumas acumuladas.
+
+    /**
+     * Registra los autores de un libro recién guardado.
+     *
+     * @param autores Los autores guardados.
+     */
+    public synchronized void agregar(Collection<Autor> autores) {
+        if (!cargado) {
+            return; // La carga inicial los incluirá al leer la base de datos.
+        }
+        for (Autor autor : autores) {
+            registrar(autor.getAnhioDeNacimiento(), autor.getAnhioDeFallecimiento(), 1);
+        }
+    }
+
+    /**
+     * Cuenta los autores que estaban vivos en un año.
+     *
+     * @param anio El año consultado.
+     * @return La cantidad de autores vivos en ese año.
+     */
+    public synchronized int contarVivos(int anio) {
+        actualizarSiEsNecesario();
+        return acumulado(nacidosHasta, anio) - acumulado(fallecidosHasta, anio);
+    }
+
+    /**
+     * Cuenta los autores que estuvieron vivos en algún momento de un rango de años.
+     * Son los que nacieron antes del final del rango, menos los que ya habían fallecido al comenzar.
+     *
+     * @param desde Primer año del rango (inclusive).
+     * @param hasta Último año del rango (inclusive).
+     * @return La cantidad de autores vivos durante el rango, o 0 si el rango está vacío.
+     */
+    public synchronized int contarVivosEntre(int desde, int hasta) {
+        if (hasta < desde) {
+            return 0;
+        }
+        actualizarSiEsNecesario();
+        return acumulado(nacidosHasta, hasta) - acumulado(fallecidosHasta, desde);
+    }
+
+    /**
+     * Suma un autor a los conteos por año, si tiene ambos años y son coherentes.
+     *
+     * @param nacimiento Año de nacimiento (puede ser null).
+     * @param fallecimiento Año de fallecimiento (puede ser null).
+     * @param cantidad Cantidad de autores con esos años.
+     */
+    private void registrar(Integer nacimiento, Integer fallecimiento, int cantidad) {
+        if (nacimiento == null || fallecimiento == null || fallecimiento <= nacimiento) {
+            return;
+        }
+        nacimientos.merge(nacimiento, cantidad, Integer::sum);
+        fallecimientos.merge(fallecimiento, cantidad, Integer::sum);
+        desactualizado = true;
+    }
+
+    /**
+     * Lee los conteos de la base de datos la primera vez y recalcula las sumas acumuladas
+     * si se agregaron autores desde el último cálculo.
+     */
+    private void actualizarSiEsNecesario() {
+        if (!cargado) {
+            jdbcTemplate.query(SQL_CONTEOS, rs -> {
+                registrar(rs.getInt("anhio_de_nacimiento"), rs.getInt("anhio_de_fallecimiento"),
+                        rs.getInt("cantidad"));
+            });
+            cargado = true;
+        }
+        if (!desactualizado) {
+            return;
+        }
+        if (nacimientos.isEmpty()) {
+            nacidosHasta = new int[0];
+            fallecidosHasta = new int[0];
+        } else {
+            // Todo fallecimiento es posterior a su nacimiento: el rango va del primer nacimiento al último fallecimiento
+            primerAnio = nacimientos.keySet().stream().mapToInt(Integer::intValue).min().getAsInt();
+            int ultimoAnio = fallecimientos.keySet().stream().mapToInt(Integer::intValue).max().getAsInt();
+            nacidosHasta = sumasAcumuladas(nacimientos, ultimoAnio - primerAnio + 1);
+            fallecidosHasta = sumasAcumuladas(fallecimientos, ultimoAnio - primerAnio + 1);
+        }
+        desactualizado = false;
+    }
+
+    /**
+     * Calcula, para cada año del rango, la suma de los conteos de ese año y los anteriores.
+     *
+     * @param conteos Conteos por año.
+     * @param longitud Cantidad de años del rango.
+     * @return Las sumas acumuladas, indexadas desde el primer año.
+     */
+    private int[] sumasAcumuladas(Map<Integer, Integer> conteos, int longitud) {
+        int[] sumas = new int[longitud];
+        conteos.forEach((anio, cantidad) -> sumas[anio - primerAnio] += cantidad);
+        for (int i = 1; i < longitud; i++) {
+            sumas[i] += sumas[i - 1];
+        }
+        return sumas;
+    }
+
+    /**
+     * Obtiene la suma acumulada hasta un año, aunque quede fuera del rango calculado.
+     *
+     * @param sumas Sumas acumuladas.
+     * @param anio El año consultado.
+     * @return La suma de los conteos hasta ese año inclusive.
+     */
+    private int acumulado(int[] sumas, int anio) {
+        if (sumas.length == 0 || anio < primerAnio) {
+            return 0;
+        }
+        return sumas[Math.min(anio - primerAnio, sumas.length - 1)];
+    }
+}
@@ -2,14 +2,28 @@ package com.alura.literalura.servicio;
 
 import com.alura.literalura.dominio.LibroDto;
 import com.alura.literalura.modelo.DatosLibro;
+import com.alura.literalura.modelo.entidad.Autor;
 import com.alura.literalura.modelo.entidad.Idioma;
 import com.alura.literalura.modelo.entidad.Libro;
 import com.alura.literalura.repositorio.LibroRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Servicio que gestiona la lógica de negocio relacionada con los libros.
@@ -22,25 +36,144 @@ public class LibroService {
     @Autowired
     private LibroRepository repository;
 
+    @Autowired
+    private RecomendacionService recomendacionService; // Índice de libros similares.
+
+    @Autowired
+    private HistogramaAutoresService histogramaAutoresService; // Conteos de autores vivos por año.
+
+    @Autowired
+    private TransactionTemplate transactionTemplate; // Transacciones para los guardados en segundo plano.
+
+    @Value("${literalura.busqueda.umbral-similitud:0.6}")
+    private double umbralSimilitud; // Similitud mínima para considerar que dos títulos coinciden.
+
+    @Value("${literalura.persistencia.hilos:4}")
+    private int hilos; // Cantidad máxima de libros guardados en paralelo.
+
+    private ExecutorService ejecutor; // Grupo acotado de hilos para guardar libros en segundo plano.
+
+    /**
+     * Crea el grupo de hilos de persistencia.
+     */
+    @PostConstruct
+    public void iniciar() {
+        ejecutor = Executors.newFixedThreadPool(Math.max(1, hilos));
+    }
+
+    /**
+     * Espera a que terminen los guardados pendientes y detiene el grupo de hilos.
+     *
+     * @throws InterruptedException Si la espera es interrumpida.
+     */
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        ejecutor.shutdown();
+        ejecutor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
     /**
      * Guarda un nuevo libro en la base de datos si no existe previamente.
      *
      * @param datos Objeto de tipo DatosLibro con la información del libro a guardar.
      * @return Un objeto LibroDto con los datos del libro guardado.
      */
+    @Transactional
     public LibroDto guardarLibro(DatosLibro datos) {
-        // Verifica si el libro ya existe en la base de datos por su título
-        Optional<Libro> nuevo = repository.findByTitulo(datos.titulo());
+        return guardar(datos, true);
+    }
+
+    /**
+     * Guarda un libro en segundo plano, en el grupo de hilos de persistencia y en su propia transacción.
+     * No muestra avisos en la consola para no intercalarlos con la interacción del usuario: si el
+     * libro se parece a otro ya guardado, lo indica en {@link LibroDto#posibleDuplicado()}.
+     *
+     * @param datos Objeto de tipo DatosLibro con la información del libro a guardar.
+     * @return Un futuro que se completa con el LibroDto del libro guardado (o del existente).
+     */
+    public CompletableFuture<LibroDto> guardarLibroEnSegundoPlano(DatosLibro datos) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return transactionTemplate.execute(estado -> guardar(datos, false));
+            } catch (DataIntegrityViolationException e) {
+                // Otro hilo guardó el mismo libro al mismo tiempo: se devuelve el ya guardado,
+                // leído en una transacción de escritura para que vaya a la base primaria
+                Libro libro = new Libro(datos);
+                return transactionTemplate.execute(estado -> repository
+                        .buscarExistente(libro.getGutendexId(), libro.getTitulo(), libro.getIdioma())
+                        .map(LibroDto::new)
+                        .orElseThrow(() -> e));
+            }
+        }, ejecutor);
+    }
+
+    /**
+     * Guarda el libro si no existe uno con el mismo identificador de Gutendex, o con el mismo
+     * título en el mismo idioma.
+     *
+     * @param datos Objeto de tipo DatosLibro con la información del libro a guardar.
+     * @param mostrarAvisos Indica si se informan en la consola los libros existentes o parecidos.
+     * @return Un objeto LibroDto con los datos del libro guardado o del existente.
+     */
+    private LibroDto guardar(DatosLibro datos, boolean mostrarAvisos) {
+        Libro libro = new Libro(datos);
+        // Verifica si el libro ya existe en la base de datos
+        Optional<Libro> existente = repository.buscarExistente(
+                libro.getGutendexId(), libro.getTitulo(), libro.getIdioma());
 
-        if (nuevo.isEmpty()) { // Si no existe, lo guarda
-            Libro libro = repository.save(new Libro(datos));
-            return new LibroDto(libro);
-        } else { // Si ya existe, muestra un mensaje de aviso
+        if (existente.isEmpty()) { // Si no existe, lo guarda
+            // Busca un libro con un título casi idéntico (por ejemplo, el mismo libro en otra edición)
+            String posibleDuplicado = repository.buscarTituloSimilar(datos.titulo(), umbralSimilitud)
+                    .map(Libro::getTitulo)
+                    .orElse(null);
+            if (mostrarAvisos && posibleDuplicado != null) {
+                System.out.println("Aviso: posible duplicado de \"" + posibleDuplicado + "\"");
+            }
+            Libro guardado = repository.save(libro);
+            // Actualiza el índice de libros similares y los conteos de autores vivos solo si el
+            // libro llega a la base de datos
+            despuesDeConfirmar(() -> {
+                recomendacionService.agregar(guardado);
+                histogramaAutoresService.agregar(guardado.getAutores());
+            });
+            return new LibroDto(guardado, posibleDuplicado);
+        } else if (mostrarAvisos) { // Si ya existe, muestra un mensaje de aviso
             System.out.println("El libro ya existe en la base de datos");
         }
 
         // Retorna el DTO del libro existente
-        return new LibroDto(nuevo.get());
+        return new LibroDto(existente.get());
+    }
+
+    /**
+     * Ejecuta una acción cuando se confirme la transacción actual, o enseguida si no hay una.
+     * Así los índices en memoria no incluyen libros de transacciones que se revierten.
+     *
+     * @param accion La acción a ejecutar.
+     */
+    private void despuesDeConfirmar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+
+    /**
+     * Busca localmente un libro cuyo título sea parecido al proporcionado,
+     * evitando una consulta a la API cuando el libro ya está almacenado.
+     *
+     * @param titulo El título ingresado por el usuario.
+     * @return Un {@link Optional} con el LibroDto más parecido, o vacío si no hay coincidencias.
+     */
+    @Transactional(readOnly = true)
+    public Optional<LibroDto> buscarLibroSimilar(String titulo) {
+        return repository.buscarTituloSimilar(titulo, umbralSimilitud).map(LibroDto::new);
     }
 
     /**
@@ -49,6 +182,7 @@ public class LibroService {
      * @param id Identificador único del libro.
      * @return Un objeto LibroDto con los datos del libro si se encuentra, o null si no existe.
      */
+    @Transactional(readOnly = true)
     public LibroDto obtenerLibroPorId(Long id) {
         // Busca el libro por ID y lo convierte a DTO si está presente
         return repository.findById(id).map(LibroDto::new).orElse(null);
@@ -59,6 +193,7 @@ public class LibroService {
      *
      * @return Una lista de objetos LibroDto con los datos de los libros.
      */
+    @Transactional(readOnly = true)
     public List<LibroDto> obtenerLibros() {
         // Obtiene todos los libros y los convierte a DTOs
         return repository.findAll().stream()
@@ -66,16 +201,42 @@ public class LibroService {
                 .toList();
     }
 
+    /**
+     * Obtiene los idiomas en los que hay libros almacenados, ordenados por abreviatura.
+     *
+     * @return Una lista con los idiomas registrados.
+     */
+    @Transactional(readOnly = true)
+    public List<Idioma> obtenerIdiomasRegistrados() {
+        return repository.obtenerIdiomasRegistrados().stream()
+                .sorted(Comparator.comparing(Idioma::toString))
+                .toList();
+    }
+
     /**
      * Obtiene libros filtrados por idioma.
      *
      * @param idioma Objeto Idioma para filtrar los libros.
      * @return Una lista de objetos LibroDto con los libros que coinciden con el idioma especificado.
      */
+    @Transactional(readOnly = true)
     public List<LibroDto> obtenerLibrosPorIdioma(Idioma idioma) {
         // Busca los libros por idioma y los convierte a DTOs
         return repository.obtenerLibrosPorIdioma(idioma).stream()
                 .map(LibroDto::new)
                 .toList();
     }
+
+    /**
+     * Obtiene los libros de los autores cuyo apellido o nombre comienza con el texto dado.
+     *
+     * @param autor Comienzo del apellido o del nombre del autor.
+     * @return Una lista de objetos LibroDto con los libros de los autores que coinciden.
+     */
+    @Transactional(readOnly = true)
+    public List<LibroDto> obtenerLibrosPorAutor(String autor) {
+        return repository.obtenerLibrosPorAutor(Autor.prefijoDeBusqueda(autor)).stream()
+                .map(LibroDto::new)
+                .toList();
+    }
 }
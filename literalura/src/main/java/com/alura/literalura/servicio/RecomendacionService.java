@@ -0,0 +1,283 @@
+package com.alura.literalura.servicio;
+
+import com.alura.literalura.dominio.LibroSimilarDto;
+import com.alura.literalura.modelo.entidad.Autor;
+import com.alura.literalura.modelo.entidad.Idioma;
+import com.alura.literalura.modelo.entidad.Libro;
+import com.alura.literalura.repositorio.LibroRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Servicio de recomendación de libros similares.
+ * Representa cada libro por el conjunto de sus temas, autores e idioma, calcula una firma
+ * MinHash de ese conjunto y la reparte en bandas (LSH). Solo los libros que comparten alguna
+ * banda se comparan, por lo que la consulta no recorre todo el catálogo.
+ *
+ * El índice se construye en memoria la primera vez que se usa y se actualiza a medida
+ * que se guardan libros nuevos. Agregar un libro que ya está en el índice no tiene efecto:
+ * un libro confirmado mientras se hacía la carga inicial puede llegar por los dos caminos.
+ */
+@Service
+public class RecomendacionService {
+
+    // Rasgos de todos los libros: temas, autores e idioma
+    private static final String SQL_RASGOS = """
+            SELECT l.id, l.titulo, l.temas, l.idioma, a.nombre
+            FROM libros l
+            LEFT JOIN libros_autores la ON la.libro_id = l.id
+            LEFT JOIN autores a ON a.id = la.autor_id
+            ORDER BY l.id
+            """;
+
+    // Semilla fija para que las funciones hash sean las mismas en cada ejecución
+    private static final long SEMILLA = 0x5DEECE66DL;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate; // Acceso JDBC directo para la carga inicial.
+
+    @Autowired
+    private LibroRepository libroRepository; // Repositorio de libros.
+
+    @Value("${literalura.busqueda.umbral-similitud:0.6}")
+    private double umbralSimilitud; // Similitud mínima para reconocer el título ingresado.
+
+    private final int bandas; // Cantidad de bandas LSH.
+    private final int filasPorBanda; // Valores de la firma por banda.
+    private final long[] coeficientesA; // Coeficiente multiplicativo de cada función hash.
+    private final long[] coeficientesB; // Coeficiente aditivo de cada función hash.
+
+    private final Map<Long, int[]> firmas = new HashMap<>(); // Firma MinHash por id de libro.
+    private final Map<Long, String> titulos = new HashMap<>(); // Título por id de libro.
+    private final Map<Long, String> idiomas = new HashMap<>(); // Nombre del idioma por id de libro.
+    private final Map<Long, List<Long>> cubetas = new HashMap<>(); // Libros por clave de banda.
+    private boolean cargado; // Indica si el índice ya se construyó desde la base de datos.
+
+    /**
+     * Inicializa las funciones hash de la firma.
+     *
+     * @param bandas Cantidad de bandas LSH.
+     * @param filasPorBanda Valores de la firma por banda.
+     */
+    public RecomendacionService(@Value("${literalura.recomendacion.bandas:16}") int bandas,
+                                @Value("${literalura.recomendacion.filas-por-banda:4}") int filasPorBanda) {
+        this.bandas = bandas;
+        this.filasPorBanda = filasPorBanda;
+        int longitud = bandas * filasPorBanda;
+        this.coeficientesA = new long[longitud];
+        this.coeficientesB = new long[longitud];
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA);
+        for (int i = 0; i < longitud; i++) {
+            coeficientesA[i] = aleatorio.nextLong() | 1L; // Impar, para que la multiplicación sea biyectiva
+            coeficientesB[i] = aleatorio.nextLong();
+        }
+    }
+
+    /**
+     * Agrega al índice un libro recién guardado.
+     *
+     * @param libro El libro guardado (con su id asignado).
+     */
+    public synchronized void agregar(Libro libro) {
+        if (!cargado) {
+            return; // La carga inicial lo incluirá al leer la base de datos.
+        }
+        if (firmas.containsKey(libro.getId())) {
+            return; // Ya lo incluyó la carga inicial.
+        }
+        Set<String> rasgos = new HashSet<>();
+        agregarRasgos(rasgos, libro.getTemas(), String.valueOf(libro.getIdioma()));
+        libro.getAutores().stream()
+                .map(Autor::getNombre)
+                .forEach(nombre -> agregarAutor(rasgos, nombre));
+        indexar(libro.getId(), libro.getTitulo(), libro.getIdioma().getNombre(), rasgos);
+    }
+
+    /**
+     * Obtiene los libros más parecidos al libro almacenado con el título indicado
+     * (o con el título más parecido, si no hay uno idéntico).
+     *
+     * @param titulo Título del libro de referencia.
+     * @param cantidad Cantidad máxima de libros a devolver.
+     * @return Los libros similares con su similitud estimada, o vacío si el libro no existe.
+     */
+    public List<LibroSimilarDto> obtenerSimilares(String titulo, int cantidad) {
+        return libroRepository.findFirstByTitulo(titulo)
+                .or(() -> libroRepository.buscarTituloSimilar(titulo, umbralSimilitud))
+                .map(libro -> obtenerSimilares(libro.getId(), cantidad))
+                .orElse(List.of());
+    }
+
+    /**
+     * Obtiene los libros más parecidos a un libro almacenado.
+     *
+     * @param idLibro Identificador del libro de referencia.
+     * @param cantidad Cantidad máxima de libros a devolver.
+     * @return Los libros similares con su similitud estimada (de 0 a 1), de mayor a menor. Libros
+     *         distintos con el mismo título (por ejemplo, en otro idioma) aparecen por separado.
+     */
+    public synchronized List<LibroSimilarDto> obtenerSimilares(Long idLibro, int cantidad) {
+        cargarSiEsNecesario();
+        int[] firma = firmas.get(idLibro);
+        if (firma == null) {
+            return List.of();
+        }
+
+        // Candidatos: libros que comparten al menos una banda con el de referencia
+        Set<Long> candidatos = new HashSet<>();
+        for (int banda = 0; banda < bandas; banda++) {
+            candidatos.addAll(cubetas.getOrDefault(claveBanda(firma, banda), List.of()));
+        }
+        candidatos.remove(idLibro);
+
+        return candidatos.stream()
+                .map(id -> new LibroSimilarDto(id, titulos.get(id), idiomas.get(id),
+                        similitudEstimada(firma, firmas.get(id))))
+                .sorted(Comparator.comparingDouble(LibroSimilarDto::similitud).reversed()
+                        .thenComparing(LibroSimilarDto::id))
+                .limit(cantidad)
+                .toList();
+    }
+
+    /**
+     * Construye el índice a partir de los libros almacenados, la primera vez que se necesita.
+     */
+    private void cargarSiEsNecesario() {
+        if (cargado) {
+            return;
+        }
+        Map<Long, Set<String>> rasgosPorLibro = new LinkedHashMap<>();
+        jdbcTemplate.query(SQL_RASGOS, rs -> {
+            long id = rs.getLong("id");
+            Set<String> rasgos = rasgosPorLibro.get(id);
+            if (rasgos == null) {
+                rasgos = new HashSet<>();
+                rasgosPorLibro.put(id, rasgos);
+                titulos.put(id, rs.getString("titulo"));
+                idiomas.put(id, Idioma.fromString(rs.getString("idioma")).getNombre());
+                agregarRasgos(rasgos, rs.getString("temas"), rs.getString("idioma"));
+            }
+            agregarAutor(rasgos, rs.getString("nombre"));
+        });
+        rasgosPorLibro.forEach((id, rasgos) -> indexar(id, titulos.get(id), idiomas.get(id), rasgos));
+        cargado = true;
+    }
+
+    /**
+     * Calcula la firma de un libro y la registra en las cubetas de cada banda.
+     *
+     * @param id Identificador del libro.
+     * @param titulo Título del libro.
+     * @param idioma Nombre del idioma del libro.
+     * @param rasgos Conjunto de rasgos del libro.
+     */
+    private void indexar(Long id, String titulo, String idioma, Set<String> rasgos) {
+        int[] firma = calcularFirma(rasgos);
+        firmas.put(id, firma);
+        titulos.put(id, titulo);
+        idiomas.put(id, idioma);
+        for (int banda = 0; banda < bandas; banda++) {
+            cubetas.computeIfAbsent(claveBanda(firma, banda), clave -> new ArrayList<>()).add(id);
+        }
+    }
+
+    /**
+     * Calcula la firma MinHash de un conjunto de rasgos: para cada función hash,
+     * el menor valor obtenido sobre todos los rasgos.
+     *
+     * @param rasgos Conjunto de rasgos.
+     * @return La firma del conjunto.
+     */
+    private int[] calcularFirma(Set<String> rasgos) {
+        int[] firma = new int[coeficientesA.length];
+        Arrays.fill(firma, Integer.MAX_VALUE);
+        for (String rasgo : rasgos) {
+            long base = rasgo.hashCode();
+            for (int i = 0; i < firma.length; i++) {
+                int valor = (int) ((coeficientesA[i] * base + coeficientesB[i]) >>> 33);
+                if (valor < firma[i]) {
+                    firma[i] = valor;
+                }
+            }
+        }
+        return firma;
+    }
+
+    /**
+     * Combina los valores de una banda de la firma en una sola clave.
+     *
+     * @param firma Firma del libro.
+     * @param banda Número de banda.
+     * @return La clave de la cubeta.
+     */
+    private long claveBanda(int[] firma, int banda) {
+        long clave = banda;
+        for (int i = banda * filasPorBanda; i < (banda + 1) * filasPorBanda; i++) {
+            clave = clave * 31 + firma[i];
+        }
+        return clave;
+    }
+
+    /**
+     * Estima la similitud de Jaccard como la fracción de posiciones iguales en las firmas.
+     *
+     * @param a Primera firma.
+     * @param b Segunda firma.
+     * @return La similitud estimada, entre 0 y 1.
+     */
+    private double similitudEstimada(int[] a, int[] b) {
+        int iguales = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                iguales++;
+            }
+        }
+        return (double) iguales / a.length;
+    }
+
+    /**
+     * Agrega los temas (separados por ";") y el idioma al conjunto de rasgos.
+     *
+     * @param rasgos Conjunto de rasgos.
+     * @param temas Temas del libro.
+     * @param idioma Idioma del libro.
+     */
+    private void agregarRasgos(Set<String> rasgos, String temas, String idioma) {
+        if (temas != null) {
+            for (String tema : temas.split(";")) {
+                if (!tema.isBlank()) {
+                    rasgos.add("tema:" + tema.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        if (idioma != null) {
+            rasgos.add("idioma:" + idioma.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Agrega un autor al conjunto de rasgos.
+     *
+     * @param rasgos Conjunto de rasgos.
+     * @param nombre Nombre del autor (puede ser null).
+     */
+    private void agregarAutor(Set<String> rasgos, String nombre) {
+        if (nombre != null) {
+            rasgos.add("autor:" + nombre.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+}
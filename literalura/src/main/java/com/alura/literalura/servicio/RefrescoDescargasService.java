@@ -0,0 +1,230 @@
+package com.alura.literalura.servicio;
+
+import com.alura.literalura.modelo.Datos;
+import com.alura.literalura.modelo.DatosLibro;
+import com.alura.literalura.servicio.provedor.ConsumoAPI;
+import com.alura.literalura.servicio.provedor.ConvierteDatos;
+import com.alura.literalura.modelo.entidad.Idioma;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio que actualiza periódicamente el contador de descargas de los libros almacenados.
+ * Consulta la API por lotes de identificadores de Gutendex (filtro "ids=") y solo escribe
+ * en la base de datos las filas cuyo contador haya cambiado.
+ */
+@Service
+public class RefrescoDescargasService {
+
+    // Sentencia de lectura de los contadores actuales de los libros con identificador de Gutendex
+    private static final String SQL_CONTADORES =
+            "SELECT gutendex_id, contador_de_descargas FROM libros WHERE gutendex_id IS NOT NULL";
+
+    // Sentencia de actualización del contador de descargas de un libro
+    private static final String SQL_ACTUALIZAR =
+            "UPDATE libros SET contador_de_descargas = ? WHERE gutendex_id = ?";
+
+    // Libros guardados antes de almacenar el identificador de Gutendex
+    private static final String SQL_SIN_IDENTIFICADOR =
+            "SELECT id, titulo, idioma FROM libros WHERE gutendex_id IS NULL";
+
+    // Completa el identificador de Gutendex de un libro
+    private static final String SQL_COMPLETAR_IDENTIFICADOR =
+            "UPDATE libros SET gutendex_id = ? WHERE id = ? AND gutendex_id IS NULL";
+
+    private static final Logger log = LoggerFactory.getLogger(RefrescoDescargasService.class);
+
+    // Acceso JDBC directo para lecturas ligeras y actualizaciones por lotes
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${literalura.api.url}")
+    private String urlBase; // URL base de la API de libros.
+
+    @Value("${literalura.refresco.tamanio-lote:32}")
+    private int tamanioLote; // Cantidad de identificadores por solicitud (una página de Gutendex).
+
+    @Value("${literalura.refresco.hilos:4}")
+    private int hilos; // Cantidad máxima de solicitudes simultáneas a la API.
+
+    private final ConsumoAPI consumoAPI = ConsumoAPI.getInstance(); // Singleton para consumo de API.
+    private final ConvierteDatos conversor = ConvierteDatos.getInstance(); // Singleton para conversión de datos.
+
+    /**
+     * Tarea programada que refresca los contadores de descargas.
+     * Se ejecuta con un retraso fijo entre ejecuciones para que nunca se solapen.
+     */
+    @Scheduled(initialDelayString = "${literalura.refresco.retraso-inicial-ms:60000}",
+            fixedDelayString = "${literalura.refresco.intervalo-ms:21600000}")
+    public void refrescarProgramado() {
+        try {
+            completarIdentificadores();
+            refrescarContadores();
+        } catch (RuntimeException e) {
+            log.warn("Error al refrescar los contadores de descargas: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Consulta los contadores de descargas actuales en la API y actualiza los que cambiaron.
+     *
+     * @return La cantidad de libros cuyo contador fue actualizado.
+     */
+    public int refrescarContadores() {
+        // Contadores almacenados actualmente, indexados por identificador de Gutendex
+        Map<Long, Integer> actuales = new HashMap<>();
+        jdbcTemplate.query(SQL_CONTADORES,
+                rs -> { actuales.put(rs.getLong(1), (Integer) rs.getObject(2)); });
+        if (actuales.isEmpty()) {
+            return 0;
+        }
+
+        // Divide los identificadores en lotes y los consulta con concurrencia acotada
+        List<Long> ids = new ArrayList<>(actuales.keySet());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, hilos));
+        List<Future<List<DatosLibro>>> pendientes = new ArrayList<>();
+        try {
+            for (int i = 0; i < ids.size(); i += tamanioLote) {
+                List<Long> lote = ids.subList(i, Math.min(i + tamanioLote, ids.size()));
+                pendientes.add(executor.submit(() -> consultarLote(lote)));
+            }
+
+            // Escribe los cambios de cada lote en cuanto llega, para que un lote fallido no descarte los demás
+            int actualizados = 0;
+            int lotesFallidos = 0;
+            for (Future<List<DatosLibro>> pendiente : pendientes) {
+                try {
+                    actualizados += escribirCambios(pendiente.get(), actuales);
+                } catch (ExecutionException | DataAccessException e) {
+                    lotesFallidos++;
+                    log.warn("No se pudo refrescar un lote de descargas: {}",
+                            e instanceof ExecutionException ? e.getCause().getMessage() : e.getMessage());
+                }
+            }
+            if (lotesFallidos > 0) {
+                log.warn("Lotes de descargas sin refrescar: {} de {}", lotesFallidos, pendientes.size());
+            }
+            return actualizados;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restablecer el estado de interrupción
+            throw new RuntimeException("El refresco fue interrumpido: " + e.getMessage(), e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Completa el identificador de Gutendex de los libros guardados antes de que se almacenara.
+     * Busca cada libro por su título en la API y toma el resultado con el mismo título e idioma.
+     * Los libros sin coincidencia se vuelven a buscar en el siguiente refresco.
+     *
+     * @return La cantidad de libros cuyo identificador fue completado.
+     */
+    public int completarIdentificadores() {
+        List<Object[]> pendientes = jdbcTemplate.query(SQL_SIN_IDENTIFICADOR,
+                (rs, fila) -> new Object[]{rs.getLong("id"), rs.getString("titulo"), rs.getString("idioma")});
+        int completados = 0;
+        for (Object[] libro : pendientes) {
+            String titulo = (String) libro[1];
+            String idioma = (String) libro[2];
+            try {
+                Optional<Long> idGutendex = buscarIdentificador(titulo, idioma);
+                if (idGutendex.isPresent()) {
+                    completados += jdbcTemplate.update(SQL_COMPLETAR_IDENTIFICADOR, idGutendex.get(), libro[0]);
+                }
+            } catch (RuntimeException e) {
+                // Sin respuesta de la API o identificador ya usado por otro libro: se reintenta en el próximo refresco
+                log.warn("No se pudo completar el identificador de \"{}\": {}", titulo, e.getMessage());
+            }
+        }
+        return completados;
+    }
+
+    /**
+     * Busca en la API el identificador del libro con el título e idioma indicados.
+     *
+     * @param titulo Título almacenado.
+     * @param idioma Código del idioma almacenado.
+     * @return El identificador de Gutendex, o vacío si ningún resultado coincide.
+     */
+    private Optional<Long> buscarIdentificador(String titulo, String idioma) {
+        String url = urlBase + "?search=" + URLEncoder.encode(titulo, StandardCharsets.UTF_8);
+        Datos resultado = conversor.obtenerDatos(consumoAPI.obtenerFlujo(url), Datos.class);
+        return resultado.libros().stream()
+                .filter(libro -> titulo.equalsIgnoreCase(libro.titulo()))
+                .filter(libro -> idioma.equals(codigoIdioma(libro)))
+                .map(DatosLibro::idGutendex)
+                .findFirst();
+    }
+
+    /**
+     * Obtiene el código con el que se almacena el idioma de un libro de la API.
+     *
+     * @param libro Datos del libro.
+     * @return El código del primer idioma, o el del idioma indeterminado si no informa ninguno.
+     */
+    private String codigoIdioma(DatosLibro libro) {
+        return libro.idiomas() == null || libro.idiomas().isEmpty()
+                ? Idioma.INDETERMINADO.toString()
+                : Idioma.fromString(libro.idiomas().get(0)).toString();
+    }
+
+    /**
+     * Actualiza los contadores de un lote que difieren de los almacenados.
+     *
+     * @param libros Datos del lote devueltos por la API.
+     * @param actuales Contadores almacenados, por identificador de Gutendex.
+     * @return La cantidad de libros actualizados.
+     */
+    private int escribirCambios(List<DatosLibro> libros, Map<Long, Integer> actuales) {
+        List<Object[]> cambios = new ArrayList<>();
+        for (DatosLibro libro : libros) {
+            Integer nuevo = libro.contadorDeDescargas();
+            if (nuevo != null && !nuevo.equals(actuales.get(libro.idGutendex()))) {
+                cambios.add(new Object[]{nuevo, libro.idGutendex()});
+            }
+        }
+        if (!cambios.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_ACTUALIZAR, cambios);
+        }
+        return cambios.size();
+    }
+
+    /**
+     * Obtiene de la API los datos de un lote de libros, siguiendo la paginación si la hubiera.
+     *
+     * @param lote Identificadores de Gutendex a consultar.
+     * @return Los datos de los libros devueltos por la API.
+     */
+    private List<DatosLibro> consultarLote(List<Long> lote) {
+        List<DatosLibro> libros = new ArrayList<>();
+        String url = urlBase + "?ids=" + lote.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+        while (url != null) {
+            Datos pagina = conversor.obtenerDatos(consumoAPI.obtenerFlujo(url), Datos.class);
+            libros.addAll(pagina.libros());
+            url = pagina.siguiente();
+        }
+        return libros;
+    }
+}
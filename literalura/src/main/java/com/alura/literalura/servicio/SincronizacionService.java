@@ -0,0 +1,129 @@
+package com.alura.literalura.servicio;
+
+import com.alura.literalura.modelo.Datos;
+import com.alura.literalura.modelo.DatosLibro;
+import com.alura.literalura.modelo.entidad.MarcaDeAgua;
+import com.alura.literalura.repositorio.MarcaDeAguaRepository;
+import com.alura.literalura.servicio.provedor.ConsumoAPI;
+import com.alura.literalura.servicio.provedor.ConvierteDatos;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Servicio de sincronización incremental con Gutendex.
+ * Guarda como marca de agua el mayor identificador de Gutendex hasta el que el catálogo ya fue
+ * ingerido sin huecos y, en cada sincronización, recorre el catálogo ordenado por identificador
+ * descendente hasta alcanzar esa marca, ingiriendo solo los libros publicados después.
+ *
+ * Si el recorrido llega al límite de páginas antes de alcanzar la marca, no la mueve: guarda la
+ * página siguiente como punto de reanudación y la próxima sincronización continúa desde ahí.
+ * La marca nunca avanza más allá de un libro que no se pudo guardar.
+ */
+@Service
+public class SincronizacionService {
+
+    // Nombre de la marca de agua que guarda el último identificador ingerido sin huecos
+    private static final String MARCA_GUTENDEX = "gutendex.ultimo-id";
+
+    // Página desde la que continúa un recorrido que quedó incompleto
+    private static final String MARCA_PAGINA = "gutendex.pagina-pendiente";
+
+    // Identificador al que avanzará la marca cuando el recorrido incompleto alcance la marca actual
+    private static final String MARCA_OBJETIVO = "gutendex.id-pendiente";
+
+    @Autowired
+    private LibroService libroService; // Servicio para gestionar libros.
+
+    @Autowired
+    private MarcaDeAguaRepository marcaRepository; // Repositorio de marcas de agua.
+
+    @Value("${literalura.api.url}")
+    private String urlBase; // URL base de la API de libros.
+
+    @Value("${literalura.sincronizacion.max-paginas:10}")
+    private int maxPaginas; // Límite de páginas por sincronización (acota la primera carga).
+
+    @Value("${literalura.sincronizacion.marca-inicial:0}")
+    private long marcaInicial; // Marca de partida cuando aún no se sincronizó nunca.
+
+    private final ConsumoAPI consumoAPI = ConsumoAPI.getInstance(); // Singleton para consumo de API.
+    private final ConvierteDatos conversor = ConvierteDatos.getInstance(); // Singleton para conversión de datos.
+
+    /**
+     * Ingiere los libros cuyo identificador de Gutendex supera la marca de agua.
+     * Si el recorrido alcanza la marca, la avanza al mayor identificador ingerido sin huecos;
+     * si no, guarda el punto de reanudación.
+     *
+     * @return La cantidad de libros nuevos guardados.
+     */
+    public int sincronizar() {
+        long marca = leerMarca(MARCA_GUTENDEX).orElse(marcaInicial);
+        long pagina = leerMarca(MARCA_PAGINA).orElse(1L);
+        Optional<Long> objetivoPendiente = leerMarca(MARCA_OBJETIVO);
+
+        // Recorre las páginas más recientes (o las pendientes) hasta encontrar un libro ya ingerido
+        List<DatosLibro> nuevos = new ArrayList<>();
+        String url = urlBase + "?sort=descending" + (pagina > 1 ? "&page=" + pagina : "");
+        int paginas = 0;
+        boolean marcaAlcanzada = false;
+        while (url != null && !marcaAlcanzada && paginas < maxPaginas) {
+            Datos datos = conversor.obtenerDatos(consumoAPI.obtenerFlujo(url), Datos.class);
+            List<DatosLibro> libros = datos.libros() == null ? List.of() : datos.libros();
+            for (DatosLibro libro : libros) {
+                if (libro == null || libro.idGutendex() == null) {
+                    continue; // Registro incompleto de la API: sin identificador no se puede comparar con la marca
+                }
+                if (libro.idGutendex() <= marca) {
+                    marcaAlcanzada = true;
+                    break;
+                }
+                nuevos.add(libro);
+            }
+            url = datos.siguiente();
+            paginas++;
+            pagina++;
+        }
+
+        // La marca avanzará hasta el libro más reciente del recorrido que empezó en la primera página
+        long objetivo = objetivoPendiente.orElse(nuevos.isEmpty() ? marca : nuevos.get(0).idGutendex());
+
+        // Guarda del más antiguo al más reciente; un fallo deja el objetivo por debajo del libro fallido
+        int guardados = 0;
+        for (int i = nuevos.size() - 1; i >= 0; i--) {
+            DatosLibro libro = nuevos.get(i);
+            try {
+                libroService.guardarLibro(libro);
+                guardados++;
+            } catch (RuntimeException e) {
+                System.out.println("No se pudo guardar \"" + libro.titulo() + "\": " + e.getMessage());
+                objetivo = Math.min(objetivo, libro.idGutendex() - 1);
+            }
+        }
+
+        if (marcaAlcanzada || url == null) {
+            // Recorrido completo: todo lo que hay entre la marca y el objetivo quedó ingerido
+            marcaRepository.save(new MarcaDeAgua(MARCA_GUTENDEX, Math.max(marca, objetivo)));
+            marcaRepository.deleteAllById(List.of(MARCA_PAGINA, MARCA_OBJETIVO));
+        } else {
+            // Quedan páginas entre lo recorrido y la marca: se continúa en la próxima sincronización
+            marcaRepository.save(new MarcaDeAgua(MARCA_PAGINA, pagina));
+            marcaRepository.save(new MarcaDeAgua(MARCA_OBJETIVO, objetivo));
+        }
+        return guardados;
+    }
+
+    /**
+     * Obtiene el valor de una marca de agua.
+     *
+     * @param nombre Nombre de la marca.
+     * @return El valor guardado, o vacío si la marca no existe.
+     */
+    private Optional<Long> leerMarca(String nombre) {
+        return marcaRepository.findById(nombre).map(MarcaDeAgua::getValor);
+    }
+}
@@ -1,20 +1,56 @@
 package com.alura.literalura.servicio.provedor;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 /**
  * Clase para el consumo de una API REST utilizando HTTP.
  * Implementa el patrón Singleton para garantizar que solo haya una instancia de ConsumoAPI.
+ *
+ * Negocia compresión gzip/deflate con el servidor y descomprime la respuesta en streaming,
+ * llevando la cuenta de los bytes recibidos por la red y de los bytes ya decodificados.
+ * Opcionalmente consulta una caché de respuestas compartida antes de ir a la red.
  */
 public class ConsumoAPI {
 
+    // Codificaciones de contenido aceptadas en las respuestas
+    private static final String CODIFICACIONES_ACEPTADAS = "gzip, deflate";
+
+    // Tamaño del búfer utilizado para la descompresión
+    private static final int TAMANIO_BUFER = 8192;
+
     // Instancia única de la clase (patrón Singleton)
     private static ConsumoAPI instance;
 
+    // Cliente HTTP compartido entre solicitudes (es seguro para uso concurrente)
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    // Bytes recibidos por la red (comprimidos, si el servidor comprimió la respuesta)
+    private final AtomicLong bytesTransferidos = new AtomicLong();
+
+    // Bytes entregados al consumidor después de descomprimir
+    private final AtomicLong bytesDecodificados = new AtomicLong();
+
+    // Caché de respuestas compartida (opcional)
+    private volatile ICacheRespuestas cache;
+
     // Constructor privado para evitar la creación de instancias fuera de esta clase
     private ConsumoAPI() {}
 
@@ -40,18 +76,144 @@ public class ConsumoAPI {
      * @throws RuntimeException Si ocurre un error durante la solicitud HTTP.
      */
     public String obtenerDatos(String url) {
-        // Crear un cliente HTTP
-        HttpClient client = HttpClient.newHttpClient();
+        try (InputStream cuerpo = obtenerFlujo(url)) {
+            String json = new String(cuerpo.readAllBytes(), StandardCharsets.UTF_8);
+            if (cuerpo instanceof ILecturaConfirmable confirmable) {
+                confirmable.confirmarLectura();
+            }
+            return json;
+        } catch (IOException e) {
+            // Captura de excepciones por error de entrada/salida
+            throw new RuntimeException("Error en la solicitud HTTP: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Realiza una solicitud HTTP GET y devuelve el cuerpo de la respuesta como un flujo ya
+     * descomprimido, listo para ser leído directamente por el conversor JSON.
+     * Si hay una caché de respuestas configurada, se consulta antes de ir a la red; en ese caso
+     * el flujo puede implementar {@link ILecturaConfirmable}, y la respuesta solo se guarda en
+     * la caché si se confirma su lectura antes de cerrarlo. El flujo debe cerrarse después de leerlo.
+     *
+     * @param url La URL de la API a la cual se realizará la solicitud.
+     * @return Un flujo con el cuerpo de la respuesta decodificado.
+     * @throws RuntimeException Si ocurre un error durante la solicitud HTTP.
+     */
+    public InputStream obtenerFlujo(String url) {
+        ICacheRespuestas cacheActual = cache;
+        if (cacheActual != null) {
+            return obtenerConCache(url, cacheActual);
+        }
+        HttpResponse<InputStream> response = enviar(url);
+        try {
+            return decodificar(response.body(), obtenerCodificacion(response));
+        } catch (IOException e) {
+            // Captura de excepciones por error de entrada/salida
+            throw new RuntimeException("Error en la solicitud HTTP: " + e.getMessage(), e);
+        }
+    }
 
-        // Construir la solicitud HTTP GET
+    /**
+     * Establece la caché de respuestas compartida. Con null se desactiva la caché.
+     *
+     * @param cache La caché a utilizar.
+     */
+    public void setCache(ICacheRespuestas cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Obtiene la respuesta desde la caché o, si no está, la descarga y la guarda en ella.
+     * Si otra instancia ya reservó la descarga de la misma URL, espera su resultado en lugar
+     * de repetir la solicitud.
+     *
+     * @param url La URL de la API a la cual se realizará la solicitud.
+     * @param cache La caché de respuestas.
+     * @return Un flujo con el cuerpo de la respuesta decodificado.
+     */
+    private InputStream obtenerConCache(String url, ICacheRespuestas cache) {
+        Optional<byte[]> guardado = cache.buscar(url);
+        while (guardado.isEmpty()) {
+            if (cache.reservar(url)) {
+                try {
+                    return descargarHaciaCache(url, cache);
+                } catch (RuntimeException e) {
+                    cache.liberar(url);
+                    throw e;
+                }
+            }
+            // Otra instancia la está descargando; si su reserva vence sin respuesta, se vuelve a reservar
+            guardado = cache.esperar(url);
+            if (guardado.isEmpty() && Thread.currentThread().isInterrupted()) {
+                throw new RuntimeException("La solicitud fue interrumpida mientras se esperaba la caché");
+            }
+        }
+        try {
+            return new FlujoContado(
+                    new GZIPInputStream(new ByteArrayInputStream(guardado.get()), TAMANIO_BUFER),
+                    bytesDecodificados);
+        } catch (IOException e) {
+            throw new RuntimeException("Respuesta en caché inválida para " + url + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Descarga la respuesta y la entrega en streaming, copiando a la vez los bytes leídos en
+     * una versión comprimida con gzip que se guarda en la caché al cerrar el flujo, si se
+     * confirmó su lectura. Si el servidor ya la envió en gzip, se copian los bytes recibidos
+     * tal cual, sin recomprimir.
+     *
+     * @param url La URL de la API a la cual se realizará la solicitud.
+     * @param cache La caché de respuestas, con la URL ya reservada.
+     * @return Un flujo con el cuerpo de la respuesta decodificado.
+     */
+    private InputStream descargarHaciaCache(String url, ICacheRespuestas cache) {
+        HttpResponse<InputStream> response = enviar(url);
+        String codificacion = obtenerCodificacion(response);
+        ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+        try {
+            if (codificacion.equals("gzip") || codificacion.equals("x-gzip")) {
+                FlujoCopiado red = new FlujoCopiado(new FlujoContado(response.body(), bytesTransferidos), comprimido);
+                InputStream decodificado;
+                try {
+                    decodificado = new FlujoContado(new GZIPInputStream(red, TAMANIO_BUFER), bytesDecodificados);
+                } catch (IOException e) {
+                    red.close(); // Cabecera gzip inválida: se libera la conexión y no se guarda nada
+                    throw e;
+                }
+                return new FlujoHaciaCache(decodificado, red, comprimido, comprimido, url, cache);
+            }
+            OutputStream gzip = new GZIPOutputStream(comprimido, TAMANIO_BUFER);
+            FlujoCopiado decodificado = new FlujoCopiado(decodificar(response.body(), codificacion), gzip);
+            return new FlujoHaciaCache(decodificado, decodificado, gzip, comprimido, url, cache);
+        } catch (IOException e) {
+            // Captura de excepciones por error de entrada/salida
+            throw new RuntimeException("Error en la solicitud HTTP: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Envía la solicitud HTTP GET, aceptando respuestas comprimidas.
+     *
+     * @param url La URL de la API a la cual se realizará la solicitud.
+     * @return La respuesta, con el cuerpo aún sin leer.
+     * @throws RuntimeException Si ocurre un error durante la solicitud o la API responde con error.
+     */
+    private HttpResponse<InputStream> enviar(String url) {
+        // Construir la solicitud HTTP GET aceptando respuestas comprimidas
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(url)) // Establecer la URI de la solicitud
+                .header("Accept-Encoding", CODIFICACIONES_ACEPTADAS)
                 .build();
 
-        HttpResponse<String> response;
         try {
-            // Enviar la solicitud y obtener la respuesta
-            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            // Enviar la solicitud y obtener la respuesta como flujo
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            if (response.statusCode() >= 400) {
+                response.body().close(); // Descarta el cuerpo de la respuesta de error
+                throw new RuntimeException("La API respondió con el estado HTTP " + response.statusCode());
+            }
+            return response;
         } catch (IOException e) {
             // Captura de excepciones por error de entrada/salida
             throw new RuntimeException("Error en la solicitud HTTP: " + e.getMessage(), e);
@@ -60,8 +222,267 @@ public class ConsumoAPI {
             Thread.currentThread().interrupt(); // Restablecer el estado de interrupción
             throw new RuntimeException("La solicitud fue interrumpida: " + e.getMessage(), e);
         }
+    }
+
+    /**
+     * Obtiene la codificación de contenido de la respuesta.
+     *
+     * @param response La respuesta HTTP.
+     * @return El valor de Content-Encoding en minúsculas, o "identity" si no se informó.
+     */
+    private String obtenerCodificacion(HttpResponse<?> response) {
+        return response.headers().firstValue("Content-Encoding")
+                .orElse("identity")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Envuelve el cuerpo recibido con el descompresor que corresponda a su codificación.
+     *
+     * @param cuerpo El flujo tal como llega por la red.
+     * @param codificacion El valor de la cabecera Content-Encoding.
+     * @return El flujo decodificado.
+     * @throws IOException Si la cabecera del formato comprimido no es válida.
+     */
+    private InputStream decodificar(InputStream cuerpo, String codificacion) throws IOException {
+        InputStream red = new FlujoContado(cuerpo, bytesTransferidos);
+        try {
+            InputStream decodificado = switch (codificacion) {
+                case "gzip", "x-gzip" -> new GZIPInputStream(red, TAMANIO_BUFER);
+                case "deflate" -> inflar(red);
+                default -> red;
+            };
+            return new FlujoContado(decodificado, bytesDecodificados);
+        } catch (IOException e) {
+            // Cierra el cuerpo para liberar la conexión si la cabecera comprimida no es válida
+            try {
+                red.close();
+            } catch (IOException alCerrar) {
+                e.addSuppressed(alCerrar);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Descomprime un cuerpo con Content-Encoding "deflate". El estándar lo define con el
+     * envoltorio zlib, pero algunos servidores envían deflate crudo; se distingue por la
+     * cabecera zlib (método 8 y los dos primeros bytes múltiplo de 31).
+     *
+     * @param red El cuerpo comprimido.
+     * @return Un flujo con el cuerpo descomprimido.
+     * @throws IOException Si no se pueden leer los primeros bytes.
+     */
+    private static InputStream inflar(InputStream red) throws IOException {
+        PushbackInputStream entrada = new PushbackInputStream(red, 2);
+        byte[] cabecera = entrada.readNBytes(2);
+        entrada.unread(cabecera);
+        boolean zlib = cabecera.length == 2
+                && (cabecera[0] & 0x0F) == 8
+                && (((cabecera[0] & 0xFF) << 8) | (cabecera[1] & 0xFF)) % 31 == 0;
+        return new InflaterInputStream(entrada, new Inflater(!zlib), TAMANIO_BUFER) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    inf.end(); // Con un Inflater propio, InflaterInputStream no lo libera
+                }
+            }
+        };
+    }
+
+    /**
+     * Obtiene la cantidad total de bytes recibidos por la red.
+     *
+     * @return Bytes recibidos desde que se creó la instancia.
+     */
+    public long getBytesTransferidos() {
+        return bytesTransferidos.get();
+    }
+
+    /**
+     * Obtiene la cantidad total de bytes entregados tras la descompresión.
+     *
+     * @return Bytes decodificados desde que se creó la instancia.
+     */
+    public long getBytesDecodificados() {
+        return bytesDecodificados.get();
+    }
+
+    /**
+     * Flujo que suma a un contador la cantidad de bytes leídos a través de él.
+     */
+    private static class FlujoContado extends FilterInputStream {
+
+        private final AtomicLong contador; // Contador al que se suman los bytes leídos.
+
+        FlujoContado(InputStream in, AtomicLong contador) {
+            super(in);
+            this.contador = contador;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                contador.incrementAndGet();
+            }
+            return b;
+        }
 
-        // Obtener el cuerpo de la respuesta y retornarlo
-        return response.body();
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int leidos = super.read(b, off, len);
+            if (leidos > 0) {
+                contador.addAndGet(leidos);
+            }
+            return leidos;
+        }
+    }
+
+    /**
+     * Flujo que copia en otro flujo de salida todos los bytes leídos a través de él.
+     */
+    private static class FlujoCopiado extends FilterInputStream {
+
+        private final OutputStream copia; // Destino de la copia.
+
+        FlujoCopiado(InputStream in, OutputStream copia) {
+            super(in);
+            this.copia = copia;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                copia.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int leidos = super.read(b, off, len);
+            if (leidos > 0) {
+                copia.write(b, off, leidos);
+            }
+            return leidos;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Los bytes salteados también deben llegar a la copia
+            byte[] descartados = new byte[(int) Math.min(n, TAMANIO_BUFER)];
+            int leidos = read(descartados, 0, descartados.length);
+            return Math.max(leidos, 0);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false; // Volver atrás duplicaría bytes en la copia
+        }
+
+        /**
+         * Lee lo que quede del flujo para completar la copia.
+         *
+         * @throws IOException Si falla la lectura.
+         */
+        void completar() throws IOException {
+            byte[] resto = new byte[TAMANIO_BUFER];
+            while (read(resto, 0, resto.length) != -1) {
+                // Solo interesa la copia
+            }
+        }
+    }
+
+    /**
+     * Flujo de una respuesta que se está copiando hacia la caché. Al cerrarse, si el consumidor
+     * confirmó que la leyó e interpretó sin errores, termina de leer lo que quede del cuerpo
+     * (normalmente el final del gzip, que el conversor JSON no necesita) y guarda la copia.
+     * En cualquier otro caso (lectura fallida, JSON inválido, cierre anticipado) libera la
+     * reserva sin guardar nada.
+     */
+    private static class FlujoHaciaCache extends FilterInputStream implements ILecturaConfirmable {
+
+        private final FlujoCopiado copiado; // Flujo que copia los bytes hacia la caché.
+        private final OutputStream copia; // Destino de la copia (el compresor gzip o los bytes directamente).
+        private final ByteArrayOutputStream comprimido; // Cuerpo comprimido que se guarda en la caché.
+        private final String url; // URL de la respuesta.
+        private final ICacheRespuestas cache; // Caché donde se guarda la respuesta.
+        private boolean confirmada; // Indica si el consumidor confirmó la lectura.
+        private boolean fallido; // Indica si la lectura falló.
+        private boolean cerrado; // Indica si el flujo ya se cerró.
+
+        FlujoHaciaCache(InputStream in, FlujoCopiado copiado, OutputStream copia,
+                        ByteArrayOutputStream comprimido, String url, ICacheRespuestas cache) {
+            super(in);
+            this.copiado = copiado;
+            this.copia = copia;
+            this.comprimido = comprimido;
+            this.url = url;
+            this.cache = cache;
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (IOException e) {
+                fallido = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                return super.read(b, off, len);
+            } catch (IOException e) {
+                fallido = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false; // Volver atrás duplicaría bytes en la copia
+        }
+
+        @Override
+        public void confirmarLectura() {
+            confirmada = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+            boolean guardada = false;
+            try {
+                if (confirmada && !fallido) {
+                    in.transferTo(OutputStream.nullOutputStream()); // Resto del cuerpo decodificado
+                    copiado.completar(); // Bytes que el descompresor no llegó a pedir
+                    copia.close();
+                    cache.guardar(url, comprimido.toByteArray());
+                    guardada = true;
+                }
+            } catch (IOException e) {
+                // La respuesta quedó incompleta: no se guarda
+            } finally {
+                if (!guardada) {
+                    try {
+                        copia.close(); // Libera el compresor aunque la copia se descarte
+                    } catch (IOException e) {
+                        // La copia se descarta de todos modos
+                    }
+                    cache.liberar(url);
+                }
+                super.close();
+            }
+        }
     }
 }
@@ -1,22 +1,48 @@
 package com.alura.literalura.servicio.provedor;
 
+import com.alura.literalura.modelo.Datos;
+import com.alura.literalura.modelo.DatosAutor;
+import com.alura.literalura.modelo.DatosLibro;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Clase para convertir datos JSON a objetos Java utilizando Jackson.
  * Implementa el patrón Singleton para garantizar que solo haya una instancia de ConvierteDatos.
+ *
+ * Mantiene un lector ({@link ObjectReader}) inmutable y ya resuelto por cada tipo de destino,
+ * y registra el módulo Blackbird para que los constructores de los records se invoquen con
+ * accesores generados en lugar de reflexión.
  */
 public class ConvierteDatos implements IConvierteDatos {
 
     // Instancia única de la clase (patrón Singleton)
     private static ConvierteDatos instance;
 
-    // Objeto ObjectMapper de Jackson para convertir JSON a objetos Java
-    private ObjectMapper objectMapper = new ObjectMapper();
+    // Objeto ObjectMapper de Jackson para convertir JSON a objetos Java.
+    // El flujo lo cierra este conversor, después de confirmar la lectura si corresponde.
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new BlackbirdModule())
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+    // Lectores preconstruidos por tipo de destino (son inmutables y seguros entre hilos)
+    private final Map<Class<?>, ObjectReader> lectores = new ConcurrentHashMap<>();
 
-    // Constructor privado para evitar la creación de instancias fuera de esta clase
-    private ConvierteDatos() {}
+    // Constructor privado para evitar la creación de instancias fuera de esta clase.
+    // Prepara de antemano los lectores de los records de la API.
+    private ConvierteDatos() {
+        lector(Datos.class);
+        lector(DatosLibro.class);
+        lector(DatosAutor.class);
+    }
 
     /**
      * Obtiene la instancia única de ConvierteDatos (patrón Singleton).
@@ -44,10 +70,46 @@ public class ConvierteDatos implements IConvierteDatos {
     public <T> T obtenerDatos(String json, Class<T> clase) {
         try {
             // Utiliza ObjectMapper para convertir el JSON a un objeto de la clase especificada
-            return objectMapper.readValue(json, clase);
+            return lector(clase).readValue(json);
         } catch (JsonProcessingException e) {
             // Captura la excepción si hay un error en la conversión de JSON y lanza una RuntimeException
             throw new RuntimeException("Error al procesar el JSON: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Convierte un flujo con contenido JSON a un objeto Java de la clase especificada.
+     * El analizador lee directamente del flujo, sin un String intermedio, y lo cierra al terminar.
+     * Si el flujo implementa {@link ILecturaConfirmable}, la lectura se confirma solo cuando el
+     * JSON se convirtió sin errores (así, por ejemplo, una página de error no queda en la caché).
+     *
+     * @param json El flujo con el JSON que se desea convertir.
+     * @param clase La clase del objeto al que se desea convertir el JSON.
+     * @param <T> El tipo de clase que se desea obtener.
+     * @return El objeto convertido desde el JSON.
+     * @throws RuntimeException Si ocurre un error durante la lectura o conversión del JSON.
+     */
+    @Override
+    public <T> T obtenerDatos(InputStream json, Class<T> clase) {
+        try (json) {
+            T datos = lector(clase).readValue(json);
+            if (json instanceof ILecturaConfirmable confirmable) {
+                confirmable.confirmarLectura();
+            }
+            return datos;
+        } catch (IOException e) {
+            // Captura errores de lectura del flujo o de conversión del JSON
+            throw new RuntimeException("Error al procesar el JSON: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Obtiene el lector preconstruido para un tipo, creándolo la primera vez que se solicita.
+     *
+     * @param clase La clase del objeto que se desea leer.
+     * @return El lector asociado a la clase.
+     */
+    private ObjectReader lector(Class<?> clase) {
+        return lectores.computeIfAbsent(clase, objectMapper::readerFor);
+    }
 }
@@ -0,0 +1,54 @@
+package com.alura.literalura.servicio.provedor;
+
+import java.util.Optional;
+
+/**
+ * Interfaz para una caché de respuestas de la API compartida entre instancias de la aplicación.
+ * Los cuerpos se guardan comprimidos con gzip y se identifican por la URL solicitada.
+ * Una reserva temporal ("lease") permite que solo una instancia descargue cada URL
+ * mientras las demás esperan su resultado.
+ */
+public interface ICacheRespuestas {
+
+    /**
+     * Busca una respuesta vigente para la URL.
+     *
+     * @param url La URL solicitada.
+     * @return El cuerpo comprimido con gzip, o vacío si no está en caché.
+     */
+    Optional<byte[]> buscar(String url);
+
+    /**
+     * Intenta reservar la descarga de la URL para esta instancia.
+     * Las implementaciones pueden devolver true si no pueden consultar la reserva (por ejemplo,
+     * si su almacenamiento no responde), de modo que la descarga no quede bloqueada; en ese caso
+     * varias instancias pueden descargar la misma URL a la vez.
+     *
+     * @param url La URL solicitada.
+     * @return true si esta instancia debe descargarla; false si otra ya la está descargando.
+     */
+    boolean reservar(String url);
+
+    /**
+     * Espera a que otra instancia guarde la respuesta de la URL, hasta que venza su reserva.
+     *
+     * @param url La URL solicitada.
+     * @return El cuerpo comprimido con gzip, o vacío si la reserva venció sin respuesta.
+     */
+    Optional<byte[]> esperar(String url);
+
+    /**
+     * Guarda la respuesta de la URL y libera su reserva.
+     *
+     * @param url La URL solicitada.
+     * @param cuerpoComprimido El cuerpo de la respuesta comprimido con gzip.
+     */
+    void guardar(String url, byte[] cuerpoComprimido);
+
+    /**
+     * Libera la reserva de la URL sin guardar respuesta (por ejemplo, si la descarga falló).
+     *
+     * @param url La URL solicitada.
+     */
+    void liberar(String url);
+}
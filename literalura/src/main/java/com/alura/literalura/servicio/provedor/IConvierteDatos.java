@@ -1,5 +1,7 @@
 package com.alura.literalura.servicio.provedor;
 
+import java.io.InputStream;
+
 /**
  * Interfaz para convertir datos JSON a objetos Java.
  * Esta interfaz define el contrato que debe seguir cualquier clase que implemente la conversión de JSON a objetos.
@@ -15,4 +17,15 @@ public interface IConvierteDatos {
      * @return El objeto convertido desde el JSON.
      */
     <T> T obtenerDatos(String json, Class<T> clase);
+
+    /**
+     * Convierte un flujo con contenido JSON a un objeto Java de la clase especificada,
+     * sin cargar antes el contenido completo en memoria. El flujo se cierra al terminar.
+     *
+     * @param json El flujo con el JSON que se desea convertir.
+     * @param clase La clase del objeto al que se desea convertir el JSON.
+     * @param <T> El tipo de clase que se desea obtener.
+     * @return El objeto convertido desde el JSON.
+     */
+    <T> T obtenerDatos(InputStream json, Class<T> clase);
 }
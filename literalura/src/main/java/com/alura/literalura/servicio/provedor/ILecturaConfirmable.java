@@ -0,0 +1,15 @@
+package com.alura.literalura.servicio.provedor;
+
+/**
+ * Interfaz para los flujos de respuesta que necesitan saber si su contenido se leyó y se
+ * interpretó correctamente antes de cerrarse (por ejemplo, para guardarlo en la caché).
+ * Quien consume el flujo debe confirmar la lectura antes de cerrarlo; si lo cierra sin
+ * confirmar, el contenido se descarta.
+ */
+public interface ILecturaConfirmable {
+
+    /**
+     * Indica que el contenido del flujo se leyó e interpretó sin errores.
+     */
+    void confirmarLectura();
+}
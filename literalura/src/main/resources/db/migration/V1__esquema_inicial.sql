@@ -0,0 +1,24 @@
+-- Esquema inicial de LiterAlura.
+-- Reproduce las tablas que antes generaba Hibernate (ddl-auto=update); usa IF NOT EXISTS
+-- para que las bases creadas de esa forma puedan adoptarse sin pérdida de datos.
+
+CREATE TABLE IF NOT EXISTS autores (
+    id                     BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nombre                 VARCHAR(255),
+    anhio_de_nacimiento    INTEGER,
+    anhio_de_fallecimiento INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS libros (
+    id                    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    titulo                VARCHAR(255) UNIQUE,
+    temas                 VARCHAR(255),
+    idioma                VARCHAR(255),
+    contador_de_descargas INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS libros_autores (
+    libro_id BIGINT NOT NULL REFERENCES libros (id),
+    autor_id BIGINT NOT NULL REFERENCES autores (id),
+    PRIMARY KEY (libro_id, autor_id)
+);
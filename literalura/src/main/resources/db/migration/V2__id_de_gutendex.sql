@@ -0,0 +1,5 @@
+-- Identificador de cada libro en Gutendex, para reconocerlo aunque cambie su título.
+-- Las bases creadas con ddl-auto=update después de agregar el campo ya tienen la columna.
+
+ALTER TABLE libros ADD COLUMN IF NOT EXISTS gutendex_id BIGINT;
+CREATE UNIQUE INDEX IF NOT EXISTS libros_gutendex_id_key ON libros (gutendex_id);
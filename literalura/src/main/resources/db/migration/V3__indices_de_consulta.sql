@@ -0,0 +1,13 @@
+-- Índices para las consultas de los repositorios.
+
+-- LibroRepository.obtenerLibrosPorIdioma
+CREATE INDEX IF NOT EXISTS libros_idioma_idx ON libros (idioma);
+
+-- Búsqueda de títulos sin distinguir mayúsculas/minúsculas
+CREATE INDEX IF NOT EXISTS libros_titulo_lower_idx ON libros (lower(titulo));
+
+-- Navegación de autor a libros (la clave primaria solo cubre libro_id como prefijo)
+CREATE INDEX IF NOT EXISTS libros_autores_autor_id_idx ON libros_autores (autor_id);
+
+-- AutorRepository.obtenerAutoresVivosPorAnio
+CREATE INDEX IF NOT EXISTS autores_anhios_idx ON autores (anhio_de_nacimiento, anhio_de_fallecimiento);
@@ -0,0 +1,5 @@
+-- Índice de trigramas para encontrar títulos parecidos sin consultar la API.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS libros_titulo_trgm_idx ON libros USING gin (lower(titulo) gin_trgm_ops);
@@ -0,0 +1,6 @@
+-- Marcas de agua de la sincronización incremental con Gutendex.
+
+CREATE TABLE IF NOT EXISTS marcas_de_agua (
+    nombre VARCHAR(100) PRIMARY KEY,
+    valor  BIGINT NOT NULL
+);
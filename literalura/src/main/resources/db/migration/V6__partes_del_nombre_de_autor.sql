@@ -0,0 +1,24 @@
+-- Partes del nombre de los autores ("Apellido, Nombre") normalizadas para búsquedas por prefijo.
+
+ALTER TABLE autores ADD COLUMN IF NOT EXISTS apellido VARCHAR(255);
+ALTER TABLE autores ADD COLUMN IF NOT EXISTS nombre_pila VARCHAR(255);
+ALTER TABLE autores ADD COLUMN IF NOT EXISTS apellido_normalizado VARCHAR(255);
+ALTER TABLE autores ADD COLUMN IF NOT EXISTS nombre_normalizado VARCHAR(255);
+
+-- Completa los autores existentes con la misma regla que aplica la entidad Autor
+UPDATE autores
+SET apellido    = trim(split_part(nombre, ',', 1)),
+    nombre_pila = NULLIF(trim(regexp_replace(substr(nombre, strpos(nombre, ',') + 1), '\(.*\)', '')), '')
+WHERE strpos(nombre, ',') > 0;
+
+UPDATE autores
+SET apellido = trim(nombre)
+WHERE strpos(nombre, ',') = 0;
+
+UPDATE autores
+SET apellido_normalizado = lower(apellido),
+    nombre_normalizado   = lower(trim(coalesce(nombre_pila || ' ', '') || apellido));
+
+-- varchar_pattern_ops permite usar el índice con LIKE 'prefijo%' en cualquier intercalación
+CREATE INDEX IF NOT EXISTS autores_apellido_normalizado_idx ON autores (apellido_normalizado varchar_pattern_ops);
+CREATE INDEX IF NOT EXISTS autores_nombre_normalizado_idx ON autores (nombre_normalizado varchar_pattern_ops);
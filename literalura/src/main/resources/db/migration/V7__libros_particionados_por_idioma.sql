@@ -0,0 +1,65 @@
+-- Particiona la tabla de libros por idioma (PostgreSQL, particiones por lista).
+-- El idioma pasa a guardarse como código ISO 639 en lugar del nombre del enum anterior.
+-- La conversión se hace al copiar las filas: las tablas creadas por Hibernate (ddl-auto=update)
+-- tienen un CHECK que solo admite los nombres del enum, por lo que no se actualizan en el lugar.
+
+ALTER TABLE libros RENAME TO libros_anterior;
+
+-- Las tablas particionadas no admiten columnas IDENTITY antes de PostgreSQL 17,
+-- por lo que el id se genera con una secuencia que continúa la numeración anterior.
+CREATE SEQUENCE libros_id_secuencia;
+SELECT setval('libros_id_secuencia', coalesce((SELECT max(id) FROM libros_anterior), 0) + 1, false);
+
+-- Las restricciones únicas de una tabla particionada deben incluir la clave de partición.
+CREATE TABLE libros (
+    id                    BIGINT      NOT NULL DEFAULT nextval('libros_id_secuencia'),
+    gutendex_id           BIGINT,
+    titulo                VARCHAR(255),
+    temas                 VARCHAR(255),
+    idioma                VARCHAR(3)  NOT NULL,
+    contador_de_descargas INTEGER,
+    PRIMARY KEY (id, idioma),
+    UNIQUE (titulo, idioma),
+    UNIQUE (gutendex_id, idioma)
+) PARTITION BY LIST (idioma);
+
+ALTER SEQUENCE libros_id_secuencia OWNED BY libros.id;
+
+-- Una partición por cada idioma frecuente en Gutendex; el resto va a la partición por defecto.
+CREATE TABLE libros_en PARTITION OF libros FOR VALUES IN ('en');
+CREATE TABLE libros_fr PARTITION OF libros FOR VALUES IN ('fr');
+CREATE TABLE libros_fi PARTITION OF libros FOR VALUES IN ('fi');
+CREATE TABLE libros_de PARTITION OF libros FOR VALUES IN ('de');
+CREATE TABLE libros_nl PARTITION OF libros FOR VALUES IN ('nl');
+CREATE TABLE libros_it PARTITION OF libros FOR VALUES IN ('it');
+CREATE TABLE libros_es PARTITION OF libros FOR VALUES IN ('es');
+CREATE TABLE libros_pt PARTITION OF libros FOR VALUES IN ('pt');
+CREATE TABLE libros_otros PARTITION OF libros DEFAULT;
+
+INSERT INTO libros (id, gutendex_id, titulo, temas, idioma, contador_de_descargas)
+SELECT id, gutendex_id, titulo, temas,
+       CASE idioma
+           WHEN 'INGLES' THEN 'en'
+           WHEN 'ESPANIOL' THEN 'es'
+           WHEN 'FRANCES' THEN 'fr'
+           WHEN 'PORTUGUES' THEN 'pt'
+           ELSE coalesce(idioma, 'und')
+       END,
+       contador_de_descargas
+FROM libros_anterior;
+
+-- CASCADE elimina también lo que dependía de la tabla anterior. Se pierde a propósito:
+--  * La clave foránea libros_autores.libro_id -> libros(id). La clave primaria de la tabla
+--    particionada es (id, idioma), así que una clave foránea hacia ella exigiría guardar el
+--    idioma en libros_autores y mapear la relación de JPA con dos columnas. Desde esta
+--    versión la integridad de libros_autores.libro_id la garantiza la aplicación: los
+--    vínculos se insertan en cascada desde Libro, en la misma transacción que el libro, y
+--    ningún camino de la aplicación borra libros. Un borrado manual debe eliminar antes sus
+--    filas de libros_autores. La clave foránea hacia autores se conserva.
+--  * El índice libros_idioma_idx (V3). No se recrea: filtrar por idioma ya se resuelve
+--    descartando particiones, sin índice.
+DROP TABLE libros_anterior CASCADE;
+
+-- Índices de consulta (se crean en cada partición).
+CREATE INDEX libros_titulo_lower_idx ON libros (lower(titulo));
+CREATE INDEX libros_titulo_trgm_idx ON libros USING gin (lower(titulo) gin_trgm_ops);
@@ -0,0 +1,13 @@
+-- Caché de respuestas de la API compartida entre instancias.
+-- UNLOGGED: no escribe en el WAL (es más rápida) y su contenido puede perderse tras una caída,
+-- lo cual es aceptable para una caché.
+
+CREATE UNLOGGED TABLE IF NOT EXISTS cache_respuestas (
+    url             TEXT PRIMARY KEY,
+    cuerpo          BYTEA,
+    expira          TIMESTAMPTZ,
+    reservada_por   VARCHAR(64),
+    reservada_hasta TIMESTAMPTZ
+);
+
+CREATE INDEX IF NOT EXISTS cache_respuestas_expira_idx ON cache_respuestas (expira);
@@ -0,0 +1,117 @@
+package com.alura.literalura;
+
+import com.alura.literalura.soporte.PostgresEmbebido;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifica las migraciones de Flyway sobre PostgreSQL embebido: en una base vacía y en una
+ * base creada por la versión anterior con ddl-auto=update.
+ */
+class MigracionesTest {
+
+    /**
+     * Aplica las migraciones con la misma configuración que la aplicación.
+     *
+     * @param fuente Base de datos a migrar.
+     * @return El resultado de la migración.
+     */
+    private MigrateResult migrar(DataSource fuente) {
+        return Flyway.configure()
+                .dataSource(fuente)
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
+
+    @Test
+    void migraUnaBaseVacia() {
+        DataSource fuente = PostgresEmbebido.fuente(PostgresEmbebido.crearBase("migracion_vacia"));
+        JdbcTemplate jdbc = new JdbcTemplate(fuente);
+
+        MigrateResult resultado = migrar(fuente);
+
+        assertThat(resultado.success).isTrue();
+        assertThat(resultado.migrationsExecuted).isEqualTo(8);
+        assertThat(resultado.targetSchemaVersion).isEqualTo("8");
+
+        // Cada idioma va a su partición; los poco frecuentes, a la partición por defecto
+        jdbc.update("INSERT INTO libros (titulo, idioma) VALUES ('Don Quijote', 'es'), ('Aeneis', 'la')");
+        assertThat(jdbc.queryForList("SELECT tableoid::regclass::text FROM libros ORDER BY titulo", String.class))
+                .containsExactly("libros_otros", "libros_es");
+
+        // El título es único por idioma
+        jdbc.update("INSERT INTO libros (titulo, idioma) VALUES ('Don Quijote', 'en')");
+        assertThatThrownBy(() -> jdbc.update("INSERT INTO libros (titulo, idioma) VALUES ('Don Quijote', 'es')"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        // Índices y extensiones que usan las consultas
+        assertThat(jdbc.queryForList("SELECT indexname FROM pg_indexes WHERE tablename = 'libros'", String.class))
+                .contains("libros_titulo_lower_idx", "libros_titulo_trgm_idx");
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM pg_extension WHERE extname = 'pg_trgm'", Integer.class))
+                .isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT relpersistence FROM pg_class WHERE relname = 'cache_respuestas'",
+                String.class)).isEqualTo("u");
+    }
+
+    @Test
+    void migraUnaBaseCreadaPorDdlAuto() throws Exception {
+        DataSource fuente = PostgresEmbebido.fuente(PostgresEmbebido.crearBase("migracion_legada"));
+        JdbcTemplate jdbc = new JdbcTemplate(fuente);
+        try (Connection conexion = fuente.getConnection()) {
+            ScriptUtils.executeSqlScript(conexion,
+                    new EncodedResource(new ClassPathResource("esquema-ddl-auto.sql"), StandardCharsets.UTF_8));
+        }
+
+        MigrateResult resultado = migrar(fuente);
+
+        assertThat(resultado.success).isTrue();
+        assertThat(resultado.migrationsExecuted).isEqualTo(8);
+
+        // Los nombres del enum anterior pasan a códigos ISO 639 y cada libro queda en su partición
+        assertThat(jdbc.queryForList(
+                "SELECT titulo || ':' || idioma || ':' || tableoid::regclass FROM libros ORDER BY id", String.class))
+                .containsExactly(
+                        "Pride and Prejudice:en:libros_en",
+                        "Don Quijote:es:libros_es",
+                        "Les Misérables:fr:libros_fr",
+                        "Odisseia:und:libros_otros");
+
+        // Las relaciones con los autores se conservan y los nombres se separan en partes
+        List<String> autores = jdbc.queryForList("""
+                SELECT l.titulo || ':' || a.apellido
+                FROM libros l
+                JOIN libros_autores la ON la.libro_id = l.id
+                JOIN autores a ON a.id = la.autor_id
+                ORDER BY l.id
+                """, String.class);
+        assertThat(autores).containsExactly("Pride and Prejudice:Austen", "Don Quijote:Cervantes Saavedra",
+                "Odisseia:Homer");
+
+        // Solo queda la clave foránea hacia autores: la de libros se pierde al particionar (ver V7)
+        assertThat(jdbc.queryForList("""
+                SELECT confrelid::regclass::text FROM pg_constraint
+                WHERE conrelid = 'libros_autores'::regclass AND contype = 'f'
+                """, String.class)).containsExactly("autores");
+
+        // Los libros nuevos continúan la numeración anterior
+        Long id = jdbc.queryForObject(
+                "INSERT INTO libros (titulo, idioma) VALUES ('Emma', 'en') RETURNING id", Long.class);
+        assertThat(id).isEqualTo(5L);
+    }
+}
@@ -0,0 +1,125 @@
+package com.alura.literalura.configuracion;
+
+import com.alura.literalura.dominio.LibroDto;
+import com.alura.literalura.modelo.DatosAutor;
+import com.alura.literalura.modelo.DatosLibro;
+import com.alura.literalura.servicio.LibroService;
+import com.alura.literalura.soporte.PostgresEmbebido;
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica el enrutamiento entre la primaria y la réplica con dos servidores PostgreSQL
+ * embebidos independientes. La réplica se migra por separado y recibe un libro que la
+ * primaria no tiene, de modo que cada consulta revela a qué servidor fue.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class FuenteDeDatosConfigTest {
+
+    private static final String TITULO_REPLICA = "Libro que solo está en la réplica";
+
+    private static final EmbeddedPostgres REPLICA = PostgresEmbebido.iniciar(); // Servidor de la réplica.
+    private static final String BASE_PRIMARIA = PostgresEmbebido.crearBase("enrutamiento_primaria");
+    private static final String BASE_REPLICA = PostgresEmbebido.crearBase(REPLICA, "enrutamiento_replica");
+
+    @Autowired
+    private LibroService libroService;
+
+    @Autowired
+    private DataSource dataSource; // Fuente enrutada.
+
+    @Autowired
+    @Qualifier("fuentePrimaria")
+    private HikariDataSource primaria;
+
+    @Autowired
+    @Qualifier("fuenteReplica")
+    private HikariDataSource replica;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registro) {
+        // La réplica no recibe las migraciones de Flyway de la aplicación: se prepara aquí
+        DataSource fuenteReplica = REPLICA.getDatabase("postgres", BASE_REPLICA);
+        Flyway.configure().dataSource(fuenteReplica).load().migrate();
+        new JdbcTemplate(fuenteReplica).update(
+                "INSERT INTO libros (titulo, idioma, contador_de_descargas) VALUES (?, 'es', 1)", TITULO_REPLICA);
+
+        registro.add("spring.datasource.url", () -> PostgresEmbebido.url(PostgresEmbebido.servidor(), BASE_PRIMARIA));
+        registro.add("spring.datasource.username", () -> "postgres");
+        registro.add("literalura.replica.url", () -> PostgresEmbebido.url(REPLICA, BASE_REPLICA));
+    }
+
+    @AfterAll
+    static void detenerReplica() throws IOException {
+        REPLICA.close();
+    }
+
+    @Test
+    void cadaPoolTieneSuNombre() {
+        assertThat(primaria.getPoolName()).isEqualTo("literalura-primaria");
+        assertThat(replica.getPoolName()).isEqualTo("literalura-replica");
+        assertThat(replica.isReadOnly()).isTrue();
+    }
+
+    @Test
+    void lasTransaccionesDeSoloLecturaUsanLaReplica() {
+        assertThat(puertoDelServidor(true)).isEqualTo(REPLICA.getPort());
+        assertThat(puertoDelServidor(false)).isEqualTo(PostgresEmbebido.servidor().getPort());
+    }
+
+    @Test
+    void losServiciosLeenDeLaReplicaYEscribenEnLaPrimaria() {
+        JdbcTemplate jdbcPrimaria = new JdbcTemplate(primaria);
+        JdbcTemplate jdbcReplica = new JdbcTemplate(replica);
+        int librosEnReplica = jdbcReplica.queryForObject("SELECT count(*) FROM libros", Integer.class);
+
+        libroService.guardarLibro(new DatosLibro(84L, "Frankenstein", List.of(
+                new DatosAutor("Shelley, Mary Wollstonecraft", 1797, 1851)),
+                List.of("Horror tales"), List.of("en"), 90000));
+
+        // La escritura va a la primaria
+        assertThat(jdbcPrimaria.queryForObject(
+                "SELECT count(*) FROM libros WHERE titulo = 'Frankenstein'", Integer.class)).isEqualTo(1);
+        assertThat(jdbcReplica.queryForObject("SELECT count(*) FROM libros", Integer.class))
+                .isEqualTo(librosEnReplica);
+
+        // La lectura (readOnly) va a la réplica, que no recibió el libro nuevo
+        assertThat(libroService.obtenerLibros()).extracting(LibroDto::titulo)
+                .contains(TITULO_REPLICA)
+                .doesNotContain("Frankenstein");
+    }
+
+    /**
+     * Consulta el puerto del servidor que atiende una transacción.
+     *
+     * @param soloLectura Modo de la transacción.
+     * @return El puerto del servidor PostgreSQL que respondió.
+     */
+    private int puertoDelServidor(boolean soloLectura) {
+        TransactionTemplate plantilla = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        plantilla.setReadOnly(soloLectura);
+        return plantilla.execute(estado ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT inet_server_port()", Integer.class));
+    }
+}
@@ -0,0 +1,144 @@
+package com.alura.literalura.interfaz;
+
+import com.alura.literalura.dominio.AutorDto;
+import com.alura.literalura.dominio.LibroDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de la escritura de listados en la consola.
+ * Compara la impresión fila por fila con {@code System.out.println} y el formato con
+ * {@code String.formatted} (el camino anterior) contra {@link RenderizadorConsola}, en sus
+ * formatos detallado y de tabla. Cada operación escribe un listado completo de libros y autores
+ * a un destino nulo, para medir solo el costo de formatear y codificar, sin el de la terminal.
+ * Con el perfilador de GC, "gc.alloc.rate.norm" dividido por la cantidad de filas es la memoria
+ * asignada por fila.
+ *
+ * No forma parte de "mvn test". Para ejecutarlo:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.alura.literalura.interfaz.RenderizadorConsolaBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenderizadorConsolaBenchmark {
+
+    @Param("5000")
+    public int filas; // Cantidad de libros y de autores del listado.
+
+    private List<Object> elementos; // Listado de libros seguido de autores.
+    private PrintStream anterior; // Salida del camino anterior.
+    private RenderizadorConsola detallado; // Renderizador en formato detallado.
+    private RenderizadorConsola tabla; // Renderizador en formato de tabla.
+
+    /**
+     * Arma los listados sintéticos y los destinos nulos.
+     */
+    @Setup
+    public void preparar() {
+        elementos = new ArrayList<>(2 * filas);
+        for (int i = 0; i < filas; i++) {
+            elementos.add(new LibroDto("Título de prueba número " + i, "Ficción", "Español", i * 7,
+                    "Autor " + (i % 997) + ", Nombre", null));
+        }
+        for (int i = 0; i < filas; i++) {
+            elementos.add(new AutorDto("Autor " + i + ", Nombre", 1700 + i % 200, 1760 + i % 200,
+                    "Título de prueba número " + i));
+        }
+        anterior = new PrintStream(OutputStream.nullOutputStream(), true, StandardCharsets.UTF_8);
+        detallado = new RenderizadorConsola(OutputStream.nullOutputStream(), StandardCharsets.UTF_8, false);
+        tabla = new RenderizadorConsola(OutputStream.nullOutputStream(), StandardCharsets.UTF_8, true);
+    }
+
+    /**
+     * Camino anterior: println por fila del texto armado con {@code String.formatted}.
+     */
+    @Benchmark
+    public void printlnFormatted() {
+        for (Object elemento : elementos) {
+            anterior.println(formatoAnterior(elemento));
+        }
+    }
+
+    /**
+     * Renderizador en formato detallado (el mismo texto que el camino anterior).
+     */
+    @Benchmark
+    public void renderizadorDetallado() {
+        detallado.mostrar(elementos);
+    }
+
+    /**
+     * Renderizador en formato de tabla compacta.
+     */
+    @Benchmark
+    public void renderizadorTabla() {
+        tabla.mostrar(elementos);
+    }
+
+    /**
+     * Ejecuta el benchmark con el perfilador de GC.
+     *
+     * @param args Argumentos de la línea de comandos (no se usan).
+     * @throws RunnerException Si JMH no puede ejecutar el benchmark.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RenderizadorConsolaBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    /**
+     * Reproduce el formato anterior de los DTO, basado en {@code String.formatted}.
+     *
+     * @param elemento Libro o autor.
+     * @return El texto del elemento.
+     */
+    private static String formatoAnterior(Object elemento) {
+        if (elemento instanceof LibroDto libro) {
+            return """
+                    --------- LIBRO ---------
+                    Título: %s
+                    Autor(es): %s
+                    Idioma: %s
+                    Número de descargas: %d
+                    -------------------------
+                    """.formatted(libro.titulo(), libro.autores(), libro.idioma(), libro.descargas());
+        }
+        AutorDto autor = (AutorDto) elemento;
+        return """
+                Autor: %s
+                Fecha de nacimiento: %d
+                Fecha de fallecimiento: %d
+                Libros: [%s]
+                """.formatted(autor.nombre(), autor.anhioDeNacimiento(), autor.anhioDeFallecimiento(),
+                autor.librosEscritos());
+    }
+}
@@ -0,0 +1,39 @@
+package com.alura.literalura.interfaz;
+
+import com.alura.literalura.dominio.AutorDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica el formato de tabla de RenderizadorConsola.
+ */
+class RenderizadorConsolaTest {
+
+    @Test
+    void alineaLosNumerosALaDerechaConSigno() {
+        String salida = mostrarEnTabla(List.of(
+                new AutorDto("Homer", -750, -650, "Odisseia"),
+                new AutorDto("Austen, Jane", 1775, 1817, "Emma")));
+
+        assertThat(salida.lines().skip(2)).containsExactly(
+                "Homer                          |       -750 |          -650 | Odisseia",
+                "Austen, Jane                   |       1775 |          1817 | Emma");
+        assertThat(RenderizadorConsola.cantidadDeCaracteres(Integer.MIN_VALUE)).isEqualTo(11);
+    }
+
+    @Test
+    void cadaElementoSinFormatoPropioOcupaSuPropiaLinea() {
+        assertThat(mostrarEnTabla(List.of("uno", "dos"))).isEqualTo("uno\ndos\n");
+    }
+
+    private static String mostrarEnTabla(List<?> elementos) {
+        ByteArrayOutputStream destino = new ByteArrayOutputStream();
+        new RenderizadorConsola(destino, StandardCharsets.UTF_8, true).mostrar(elementos);
+        return destino.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,39 @@
+package com.alura.literalura.modelo.entidad;
+
+import com.alura.literalura.modelo.DatosAutor;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica las partes del nombre y las formas normalizadas que Autor usa en las búsquedas por prefijo.
+ */
+class AutorTest {
+
+    @Test
+    void cambiarElNombreRecalculaSusPartes() {
+        Autor autor = new Autor(new DatosAutor("Twain, Mark", 1835, 1910));
+
+        autor.setNombre("Clemens, Samuel Langhorne");
+        assertThat(autor.getApellido()).isEqualTo("Clemens");
+        assertThat(autor.getNombrePila()).isEqualTo("Samuel Langhorne");
+        assertThat(autor.getApellidoNormalizado()).isEqualTo("clemens");
+        assertThat(autor.getNombreNormalizado()).isEqualTo("samuel langhorne clemens");
+
+        // Sin coma no queda el nombre de pila anterior
+        autor.setNombre("Homer");
+        assertThat(autor.getNombrePila()).isNull();
+        assertThat(autor.getNombreNormalizado()).isEqualTo("homer");
+
+        autor.setNombre(null);
+        assertThat(autor.getApellido()).isNull();
+        assertThat(autor.getApellidoNormalizado()).isNull();
+    }
+
+    @Test
+    void normalizarAceptaNull() {
+        assertThat(Autor.normalizar(null)).isNull();
+        assertThat(Autor.prefijoDeBusqueda(null)).isEmpty();
+        assertThat(Autor.prefijoDeBusqueda(" Snake_Case ")).isEqualTo("snake\\_case");
+    }
+}
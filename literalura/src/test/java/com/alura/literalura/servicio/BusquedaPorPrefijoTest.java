@@ -0,0 +1,88 @@
+package com.alura.literalura.servicio;
+
+import com.alura.literalura.dominio.AutorDto;
+import com.alura.literalura.dominio.LibroDto;
+import com.alura.literalura.modelo.DatosAutor;
+import com.alura.literalura.modelo.DatosLibro;
+import com.alura.literalura.soporte.PostgresEmbebido;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que las búsquedas de autores por prefijo tomen "%", "_" y "\" como caracteres
+ * literales y no como comodines de LIKE.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BusquedaPorPrefijoTest {
+
+    private static final AtomicLong IDENTIFICADORES = new AtomicLong(900_000); // Identificadores de Gutendex de prueba.
+
+    @Autowired
+    private AutorService autorService;
+
+    @Autowired
+    private LibroService libroService;
+
+    private static boolean guardados; // Indica si los libros de prueba ya se guardaron.
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registro) {
+        PostgresEmbebido.registrarBase(registro, "prefijos");
+    }
+
+    @BeforeEach
+    void guardarAutores() {
+        if (guardados) {
+            return;
+        }
+        guardar("Libro de Snake_Case", "Snake_Case, Ana");
+        guardar("Libro de Snakexcase", "Snakexcase, Ana");
+        guardar("Libro de 100%", "100%, Beto");
+        guardar("Libro de 1000", "1000, Beto");
+        guardar("Libro de Back\\Slash", "Back\\Slash, Carla");
+        guardar("Libro de Backslash", "Backslash, Carla");
+        guardados = true;
+    }
+
+    @Test
+    void elGuionBajoNoEsUnComodin() {
+        List<AutorDto> autores = autorService.buscarAutores("snake_");
+
+        assertThat(autores).extracting(AutorDto::nombre).containsExactly("Snake_Case, Ana");
+    }
+
+    @Test
+    void elPorcentajeNoEsUnComodin() {
+        assertThat(autorService.autocompletarAutores("100%", 10)).containsExactly("100%, Beto");
+        assertThat(autorService.autocompletarAutores("beto 100%", 10)).containsExactly("100%, Beto");
+    }
+
+    @Test
+    void laBarraInvertidaSeBuscaLiteralmente() {
+        List<LibroDto> libros = libroService.obtenerLibrosPorAutor("back\\");
+
+        assertThat(libros).extracting(LibroDto::titulo).containsExactly("Libro de Back\\Slash");
+    }
+
+    /**
+     * Guarda un libro en inglés con un único autor.
+     *
+     * @param titulo Título del libro.
+     * @param autor Nombre del autor, en el formato de Gutendex ("Apellido, Nombre").
+     */
+    private void guardar(String titulo, String autor) {
+        libroService.guardarLibro(new DatosLibro(IDENTIFICADORES.incrementAndGet(), titulo,
+                List.of(new DatosAutor(autor, 1900, 1980)), List.of("Prueba"), List.of("en"), 1));
+    }
+}
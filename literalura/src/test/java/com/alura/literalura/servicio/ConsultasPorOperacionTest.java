@@ -0,0 +1,262 @@
+package com.alura.literalura.servicio;
+
+import com.alura.literalura.modelo.DatosAutor;
+import com.alura.literalura.modelo.DatosLibro;
+import com.alura.literalura.modelo.entidad.Idioma;
+import com.alura.literalura.repositorio.LibroRepository;
+import com.alura.literalura.soporte.PostgresEmbebido;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de regresión de la cantidad de sentencias SQL y de entidades cargadas por cada operación
+ * pública de LibroService y AutorService, medidas con las estadísticas de Hibernate sobre un
+ * catálogo de tamaño realista. Si una consulta vuelve a cargar las relaciones una fila a la vez
+ * (N+1), la cantidad de sentencias deja de ser constante y la prueba falla.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class ConsultasPorOperacionTest {
+
+    private static final int LIBROS = 600; // Libros del catálogo de prueba.
+    private static final int AUTORES = 150; // Autores distintos del catálogo (con el mismo nombre se repiten por libro).
+    private static final String[] IDIOMAS = {"en", "es", "fr", "pt"}; // Idiomas de los libros, en rotación.
+
+    @Autowired
+    private LibroService libroService;
+
+    @Autowired
+    private AutorService autorService;
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static boolean cargado; // Indica si el catálogo ya se guardó.
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registro) {
+        PostgresEmbebido.registrarBase(registro, "consultas");
+    }
+
+    @BeforeEach
+    void cargarCatalogo() {
+        if (cargado) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(estado -> {
+            for (int i = 0; i < LIBROS; i++) {
+                libroService.guardarLibro(libro(i));
+            }
+        });
+        cargado = true;
+    }
+
+    @Test
+    void obtenerLibrosUsaUnaSolaSentencia() {
+        long libros = contar("SELECT count(*) FROM libros");
+        long autores = contar("SELECT count(*) FROM autores");
+
+        Conteo conteo = medir(() -> assertThat(libroService.obtenerLibros()).hasSize((int) libros));
+
+        assertThat(conteo).isEqualTo(new Conteo(1, libros + autores, 0));
+    }
+
+    @Test
+    void obtenerLibroPorIdCargaSusAutoresEnUnaSentenciaMas() {
+        Long id = libroRepository.findFirstByTitulo("Libro 0").orElseThrow().getId(); // Tiene dos autores
+
+        Conteo conteo = medir(() -> assertThat(libroService.obtenerLibroPorId(id)).isNotNull());
+
+        assertThat(conteo).isEqualTo(new Conteo(2, 3, 1));
+    }
+
+    @Test
+    void obtenerIdiomasRegistradosNoCargaEntidades() {
+        Conteo conteo = medir(() -> assertThat(libroService.obtenerIdiomasRegistrados()).hasSize(IDIOMAS.length));
+
+        assertThat(conteo).isEqualTo(new Conteo(1, 0, 0));
+    }
+
+    @Test
+    void obtenerLibrosPorIdiomaUsaUnaSolaSentencia() {
+        long libros = contar("SELECT count(*) FROM libros WHERE idioma = 'es'");
+        long autores = contar("""
+                SELECT count(DISTINCT la.autor_id) FROM libros_autores la
+                JOIN libros l ON l.id = la.libro_id WHERE l.idioma = 'es'
+                """);
+
+        Conteo conteo = medir(() -> assertThat(libroService.obtenerLibrosPorIdioma(Idioma.fromString("es")))
+                .hasSize((int) libros));
+
+        assertThat(conteo).isEqualTo(new Conteo(1, libros + autores, 0));
+    }
+
+    @Test
+    void obtenerLibrosPorAutorUsaUnaSolaSentencia() {
+        String librosDelAutor = """
+                SELECT la.libro_id FROM libros_autores la JOIN autores a ON a.id = la.autor_id
+                WHERE a.apellido_normalizado LIKE 'apellido7%'
+                """;
+        long libros = contar("SELECT count(DISTINCT libro_id) FROM (" + librosDelAutor + ") l");
+        long autores = contar("SELECT count(DISTINCT autor_id) FROM libros_autores WHERE libro_id IN ("
+                + librosDelAutor + ")");
+
+        Conteo conteo = medir(() -> assertThat(libroService.obtenerLibrosPorAutor("apellido7")).hasSize((int) libros));
+
+        assertThat(conteo).isEqualTo(new Conteo(1, libros + autores, 0));
+        // Los coautores que no coinciden con el prefijo también se cargan
+        assertThat(libroService.obtenerLibrosPorAutor("apellido70"))
+                .filteredOn(libro -> libro.titulo().equals("Libro 69"))
+                .singleElement()
+                .satisfies(libro -> assertThat(libro.autores()).contains("Apellido69, Nombre", "Apellido70, Nombre"));
+    }
+
+    @Test
+    void buscarLibroSimilarCargaSusAutoresEnSentenciasAparte() {
+        Conteo conteo = medir(() -> assertThat(libroService.buscarLibroSimilar("libro 123")).isPresent());
+
+        assertThat(conteo).isEqualTo(new Conteo(3, 3, 2));
+    }
+
+    @Test
+    void guardarLibroUsaUnaCantidadFijaDeSentencias() {
+        Conteo nuevo = medir(() -> libroService.guardarLibro(libro(LIBROS + 1)));
+        Conteo existente = medir(() -> libroService.guardarLibro(libro(LIBROS + 1)));
+
+        assertThat(nuevo).isEqualTo(new Conteo(7, 3, 2));
+        assertThat(existente).isEqualTo(new Conteo(3, 2, 2));
+    }
+
+    @Test
+    void guardarLibroEnSegundoPlanoUsaUnaCantidadFijaDeSentencias() {
+        Conteo nuevo = medir(() -> libroService.guardarLibroEnSegundoPlano(libro(LIBROS + 2)).join());
+        Conteo existente = medir(() -> libroService.guardarLibroEnSegundoPlano(libro(LIBROS + 2)).join());
+
+        assertThat(nuevo).isEqualTo(new Conteo(7, 3, 2));
+        assertThat(existente).isEqualTo(new Conteo(3, 2, 2));
+    }
+
+    @Test
+    void obtenerAutoresUsaUnaSolaSentencia() {
+        long autores = contar("SELECT count(*) FROM autores");
+        long libros = contar("SELECT count(*) FROM libros");
+
+        Conteo conteo = medir(() -> assertThat(autorService.obtenerAutores()).hasSize((int) autores));
+
+        assertThat(conteo).isEqualTo(new Conteo(1, autores + libros, 0));
+    }
+
+    @Test
+    void obtenerAutoresVivosPorAnioUsaUnaSolaSentencia() {
+        String vivos = "SELECT id FROM autores WHERE anhio_de_nacimiento <= 1850 AND anhio_de_fallecimiento > 1850";
+        long autores = contar("SELECT count(*) FROM (" + vivos + ") a");
+        long libros = contar("SELECT count(DISTINCT libro_id) FROM libros_autores WHERE autor_id IN (" + vivos + ")");
+
+        Conteo conteo = medir(() -> assertThat(autorService.obtenerAutoresVivosPorAnio(1850)).hasSize((int) autores));
+
+        assertThat(conteo).isEqualTo(new Conteo(1, autores + libros, 0));
+    }
+
+    @Test
+    void buscarAutoresUsaUnaSolaSentencia() {
+        String coincidentes = "SELECT id FROM autores WHERE apellido_normalizado LIKE 'apellido7%'";
+        long autores = contar("SELECT count(*) FROM (" + coincidentes + ") a");
+        long libros = contar("SELECT count(DISTINCT libro_id) FROM libros_autores WHERE autor_id IN ("
+                + coincidentes + ")");
+
+        Conteo conteo = medir(() -> assertThat(autorService.buscarAutores("apellido7")).hasSize((int) autores));
+
+        assertThat(conteo).isEqualTo(new Conteo(1, autores + libros, 0));
+    }
+
+    @Test
+    void autocompletarAutoresNoCargaEntidades() {
+        Conteo conteo = medir(() -> assertThat(autorService.autocompletarAutores("apellido1", 10)).hasSize(10));
+
+        assertThat(conteo).isEqualTo(new Conteo(1, 0, 0));
+    }
+
+    /**
+     * Cuenta filas directamente con SQL, sin pasar por Hibernate.
+     *
+     * @param sql Consulta que devuelve una cantidad.
+     * @return La cantidad.
+     */
+    private long contar(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    /**
+     * Ejecuta una operación y cuenta las sentencias y las entidades que necesitó.
+     *
+     * @param operacion La operación a medir.
+     * @return Los conteos de la operación.
+     */
+    private Conteo medir(Runnable operacion) {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        operacion.run();
+        return new Conteo(estadisticas.getPrepareStatementCount(), estadisticas.getEntityLoadCount(),
+                estadisticas.getCollectionFetchCount());
+    }
+
+    /**
+     * Crea los datos del libro número i del catálogo: uno de cada tres libros tiene dos autores.
+     *
+     * @param i Número del libro.
+     * @return Los datos del libro.
+     */
+    private static DatosLibro libro(int i) {
+        List<DatosAutor> autores = new ArrayList<>();
+        autores.add(autor(i % AUTORES));
+        if (i % 3 == 0) {
+            autores.add(autor((i + 1) % AUTORES));
+        }
+        return new DatosLibro(800_000L + i, "Libro " + i, autores, List.of("Tema " + i % 20, "Tema " + i % 7),
+                List.of(IDIOMAS[i % IDIOMAS.length]), i * 13);
+    }
+
+    /**
+     * Crea los datos del autor número n.
+     *
+     * @param n Número del autor.
+     * @return Los datos del autor.
+     */
+    private static DatosAutor autor(int n) {
+        int nacimiento = 1700 + n % 200;
+        return new DatosAutor("Apellido" + n + ", Nombre", nacimiento, nacimiento + 40 + n % 30);
+    }
+
+    /**
+     * Conteos de una operación.
+     *
+     * @param sentencias Sentencias SQL preparadas.
+     * @param entidades Entidades cargadas desde la base de datos.
+     * @param colecciones Colecciones cargadas por separado.
+     */
+    private record Conteo(long sentencias, long entidades, long colecciones) {}
+}
@@ -0,0 +1,62 @@
+package com.alura.literalura.servicio;
+
+import com.alura.literalura.soporte.PostgresEmbebido;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que ExportacionService reemplace el archivo de destino de una sola vez y que el CSV
+ * lleve encabezado aunque no haya filas. Usa una base propia, vacía.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ExportacionServiceTest {
+
+    @Autowired
+    private ExportacionService exportacionService;
+
+    @TempDir
+    Path directorio;
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registro) {
+        PostgresEmbebido.registrarBase(registro, "exportacion");
+    }
+
+    @Test
+    void unCsvSinFilasLlevaElEncabezado() throws IOException {
+        Path destino = directorio.resolve("autores.csv");
+
+        long filas = exportacionService.exportarAutores(destino, ExportacionService.Formato.CSV, false);
+
+        assertThat(filas).isZero();
+        assertThat(Files.readString(destino, StandardCharsets.UTF_8))
+                .isEqualTo("id,nombre,anhio_de_nacimiento,anhio_de_fallecimiento\r\n");
+    }
+
+    @Test
+    void reemplazaElDestinoSinDejarTemporales() throws IOException {
+        Path destino = directorio.resolve("autores.ndjson");
+        Files.writeString(destino, "contenido anterior que es más largo que la exportación vacía");
+
+        exportacionService.exportarAutores(destino, ExportacionService.Formato.NDJSON, false);
+
+        assertThat(Files.readString(destino)).isEmpty();
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            assertThat(archivos).containsExactly(destino);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.alura.literalura.servicio;
+
+import com.alura.literalura.LiteraturaApplication;
+import com.alura.literalura.modelo.Datos;
+import com.alura.literalura.modelo.DatosLibro;
+import com.alura.literalura.servicio.provedor.ConsumoAPI;
+import com.alura.literalura.servicio.provedor.ConvierteDatos;
+import com.alura.literalura.soporte.PostgresEmbebido;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de extremo a extremo de la ingesta de libros: recorre páginas del servidor
+ * Gutendex simulado y guarda cada libro con {@link LibroService#guardarLibro}, sobre
+ * PostgreSQL embebido. Cada medición parte de las tablas vacías y ejecuta la ingesta completa
+ * una vez. El benchmark "descargarYConvertir" recorre las mismas páginas sin guardarlas, de
+ * modo que la diferencia entre ambos es el costo de la persistencia.
+ *
+ * No forma parte de "mvn test". Para ejecutarlo:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.alura.literalura.servicio.IngestaBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IngestaBenchmark {
+
+    @Param("10")
+    public int paginas; // Páginas de 32 libros que se ingieren en cada medición.
+
+    @Param("25")
+    public int copias; // Veces que el simulador replica su catálogo de 14 libros.
+
+    private ConfigurableApplicationContext contexto; // Aplicación con los perfiles "test" y "simulador".
+    private LibroService libroService; // Servicio que guarda los libros.
+    private JdbcTemplate jdbcTemplate; // Acceso directo para vaciar las tablas.
+    private String urlBase; // URL base del simulador.
+    private final ConsumoAPI consumoAPI = ConsumoAPI.getInstance(); // Singleton para consumo de API.
+    private final ConvierteDatos conversor = ConvierteDatos.getInstance(); // Singleton para conversión de datos.
+
+    /**
+     * Inicia la aplicación sobre una base embebida vacía, con el simulador en un puerto libre.
+     *
+     * @throws IOException Si no se encuentra un puerto libre.
+     */
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        int puerto;
+        try (ServerSocket libre = new ServerSocket(0)) {
+            puerto = libre.getLocalPort();
+        }
+        String url = PostgresEmbebido.url(PostgresEmbebido.servidor(), PostgresEmbebido.crearBase("ingesta"));
+        contexto = new SpringApplicationBuilder(LiteraturaApplication.class)
+                .profiles("test", "simulador")
+                .properties(
+                        "spring.datasource.url=" + url,
+                        "spring.datasource.username=postgres",
+                        "literalura.simulador.puerto=" + puerto,
+                        "literalura.simulador.copias=" + copias)
+                .run();
+        libroService = contexto.getBean(LibroService.class);
+        jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        urlBase = contexto.getEnvironment().getProperty("literalura.api.url");
+    }
+
+    /**
+     * Vacía las tablas antes de cada medición, para que todos los libros sean nuevos.
+     */
+    @Setup(Level.Iteration)
+    public void vaciar() {
+        jdbcTemplate.execute("TRUNCATE libros_autores, libros, autores");
+    }
+
+    /**
+     * Cierra la aplicación (y con ella el simulador).
+     */
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    /**
+     * Descarga, convierte y guarda las páginas configuradas.
+     *
+     * @return La cantidad de libros guardados.
+     */
+    @Benchmark
+    public int ingerir() {
+        return recorrer(true);
+    }
+
+    /**
+     * Descarga y convierte las páginas configuradas, sin guardarlas.
+     *
+     * @return La cantidad de libros leídos.
+     */
+    @Benchmark
+    public int descargarYConvertir() {
+        return recorrer(false);
+    }
+
+    /**
+     * Recorre las páginas del simulador en orden ascendente de id.
+     *
+     * @param guardar Indica si se guarda cada libro.
+     * @return La cantidad de libros recorridos.
+     */
+    private int recorrer(boolean guardar) {
+        int libros = 0;
+        int paginasLeidas = 0;
+        String url = urlBase + "?sort=ascending";
+        while (url != null && paginasLeidas < paginas) {
+            Datos pagina = conversor.obtenerDatos(consumoAPI.obtenerFlujo(url), Datos.class);
+            for (DatosLibro libro : pagina.libros()) {
+                if (guardar) {
+                    libroService.guardarLibro(libro);
+                }
+                libros++;
+            }
+            paginasLeidas++;
+            url = pagina.siguiente();
+        }
+        return libros;
+    }
+
+    /**
+     * Ejecuta el benchmark.
+     *
+     * @param args Argumentos de la línea de comandos (no se usan).
+     * @throws RunnerException Si JMH no puede ejecutar el benchmark.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(IngestaBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
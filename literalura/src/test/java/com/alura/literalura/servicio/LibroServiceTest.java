@@ -0,0 +1,167 @@
+package com.alura.literalura.servicio;
+
+import com.alura.literalura.dominio.LibroDto;
+import com.alura.literalura.dominio.LibroSimilarDto;
+import com.alura.literalura.modelo.DatosAutor;
+import com.alura.literalura.modelo.DatosLibro;
+import com.alura.literalura.repositorio.LibroRepository;
+import com.alura.literalura.soporte.PostgresEmbebido;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica cómo LibroService detecta los libros ya guardados y los posibles duplicados.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LibroServiceTest {
+
+    @Autowired
+    private LibroService libroService;
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private RecomendacionService recomendacionService;
+
+    @Autowired
+    private HistogramaAutoresService histogramaAutoresService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registro) {
+        PostgresEmbebido.registrarBase(registro, "libros");
+    }
+
+    @Test
+    void reconoceElMismoLibroDeGutendexAunqueCambieSuTitulo() {
+        libroService.guardarLibro(libro(700_001L, "Moby Dick", "en"));
+        long antes = libroRepository.count();
+
+        LibroDto existente = libroService.guardarLibro(libro(700_001L, "Moby-Dick; or, The Whale", "en"));
+
+        assertThat(existente.titulo()).isEqualTo("Moby Dick");
+        assertThat(libroRepository.count()).isEqualTo(antes);
+    }
+
+    @Test
+    void guardaElMismoTituloEnOtroIdioma() {
+        libroService.guardarLibro(libro(700_011L, "Fábulas", "es"));
+        long antes = libroRepository.count();
+
+        LibroDto portugues = libroService.guardarLibro(libro(700_012L, "Fábulas", "pt"));
+
+        assertThat(portugues.idioma()).isEqualTo("Portugués");
+        assertThat(libroRepository.count()).isEqualTo(antes + 1);
+    }
+
+    @Test
+    void elGuardadoEnSegundoPlanoInformaLosPosiblesDuplicados() {
+        libroService.guardarLibro(libro(700_021L, "The Adventures of Tom Sawyer", "en"));
+
+        LibroDto parecido = libroService.guardarLibroEnSegundoPlano(
+                libro(700_022L, "The Adventures of Tom Sawyer, Complete", "en")).join();
+        LibroDto distinto = libroService.guardarLibroEnSegundoPlano(
+                libro(700_023L, "A Tale of Two Cities", "en")).join();
+
+        assertThat(parecido.posibleDuplicado()).isEqualTo("The Adventures of Tom Sawyer");
+        assertThat(parecido.toString()).contains("Aviso: posible duplicado de \"The Adventures of Tom Sawyer\"");
+        assertThat(distinto.posibleDuplicado()).isNull();
+    }
+
+    @Test
+    void losGuardadosSimultaneosDelMismoLibroDevuelvenElGuardado() {
+        List<CompletableFuture<LibroDto>> guardados = IntStream.range(0, 8)
+                .mapToObj(i -> libroService.guardarLibroEnSegundoPlano(libro(700_031L, "Walden", "en")))
+                .toList();
+
+        assertThat(guardados).allSatisfy(guardado ->
+                assertThat(guardado.join().titulo()).isEqualTo("Walden"));
+        assertThat(libroRepository.findFirstByTitulo("Walden")).isPresent();
+        assertThat(libroRepository.findAll()).filteredOn(libro -> libro.getTitulo().equals("Walden")).hasSize(1);
+    }
+
+    @Test
+    void elIndiceDeRecomendacionesNoIncluyeLibrosDeTransaccionesRevertidas() {
+        libroService.guardarLibro(libro(700_041L, "Ballenas del sur", "en", "Ballenas;Mar", "Melville, Herman"));
+        assertThat(recomendacionService.obtenerSimilares("Ballenas del sur", 5)).isEmpty(); // Carga el índice
+
+        transactionTemplate.executeWithoutResult(estado -> {
+            libroService.guardarLibro(libro(700_042L, "Ballenas del norte", "en", "Ballenas;Mar", "Melville, Herman"));
+            estado.setRollbackOnly();
+        });
+        libroService.guardarLibro(libro(700_043L, "Ballenas del este", "en", "Ballenas;Mar", "Melville, Herman"));
+
+        assertThat(recomendacionService.obtenerSimilares("Ballenas del sur", 5))
+                .extracting(LibroSimilarDto::titulo)
+                .containsExactly("Ballenas del este");
+    }
+
+    @Test
+    void lasRecomendacionesDistinguenElMismoTituloEnOtroIdioma() {
+        libroService.guardarLibro(libro(700_061L, "Cuentos de la selva", "es", "Selva;Cuentos", "Quiroga, Horacio"));
+        libroService.guardarLibro(libro(700_062L, "Anaconda", "es", "Selva;Cuentos", "Quiroga, Horacio"));
+        libroService.guardarLibro(libro(700_063L, "Anaconda", "pt", "Selva;Cuentos", "Quiroga, Horacio"));
+
+        assertThat(recomendacionService.obtenerSimilares("Cuentos de la selva", 5))
+                .extracting(similar -> similar.titulo() + " (" + similar.idioma() + ")")
+                .containsExactlyInAnyOrder("Anaconda (Español)", "Anaconda (Portugués)");
+    }
+
+    @Test
+    void losConteosDeAutoresVivosNoIncluyenTransaccionesRevertidas() {
+        int antes = histogramaAutoresService.contarVivos(1560); // Carga los conteos
+
+        transactionTemplate.executeWithoutResult(estado -> {
+            libroService.guardarLibro(new DatosLibro(700_051L, "Ensayos",
+                    List.of(new DatosAutor("Montaigne, Michel de", 1533, 1592)), List.of("Ensayos"), List.of("fr"), 10));
+            estado.setRollbackOnly();
+        });
+        assertThat(histogramaAutoresService.contarVivos(1560)).isEqualTo(antes);
+
+        libroService.guardarLibro(new DatosLibro(700_052L, "Don Quijote",
+                List.of(new DatosAutor("Cervantes Saavedra, Miguel de", 1547, 1616)), List.of("Novela"), List.of("es"), 10));
+        assertThat(histogramaAutoresService.contarVivos(1560)).isEqualTo(antes + 1);
+    }
+
+    /**
+     * Crea los datos de un libro con un único autor.
+     *
+     * @param gutendexId Identificador del libro en Gutendex.
+     * @param titulo Título del libro.
+     * @param idioma Código del idioma.
+     * @return Los datos del libro.
+     */
+    private static DatosLibro libro(Long gutendexId, String titulo, String idioma) {
+        return libro(gutendexId, titulo, idioma, "Prueba", "Autor, Prueba");
+    }
+
+    /**
+     * Crea los datos de un libro con un único autor, con temas y autor a elección.
+     *
+     * @param gutendexId Identificador del libro en Gutendex.
+     * @param titulo Título del libro.
+     * @param idioma Código del idioma.
+     * @param temas Temas separados por ";".
+     * @param autor Nombre del autor, en el formato de Gutendex ("Apellido, Nombre").
+     * @return Los datos del libro.
+     */
+    private static DatosLibro libro(Long gutendexId, String titulo, String idioma, String temas, String autor) {
+        return new DatosLibro(gutendexId, titulo, List.of(new DatosAutor(autor, 1800, 1870)),
+                List.of(temas.split(";")), List.of(idioma), 10);
+    }
+}
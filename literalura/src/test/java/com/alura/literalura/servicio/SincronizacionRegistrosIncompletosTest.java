@@ -0,0 +1,95 @@
+package com.alura.literalura.servicio;
+
+import com.alura.literalura.modelo.entidad.MarcaDeAgua;
+import com.alura.literalura.repositorio.LibroRepository;
+import com.alura.literalura.repositorio.MarcaDeAguaRepository;
+import com.alura.literalura.soporte.PostgresEmbebido;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que la sincronización omita los registros incompletos de la API (sin identificador,
+ * nulos o páginas sin resultados) en lugar de fallar, contra un servidor local con respuestas fijas.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SincronizacionRegistrosIncompletosTest {
+
+    // Primera página: un libro sin identificador, un registro nulo y un libro completo
+    private static final String PRIMERA_PAGINA = """
+            {"count": 3, "next": "%s?sort=descending&page=2", "results": [
+              {"id": null, "title": "Sin identificador", "authors": [], "languages": ["en"]},
+              null,
+              {"id": 60001, "title": "Con identificador", "authors": [], "subjects": [], "languages": ["en"], "download_count": 5}
+            ]}
+            """;
+
+    // Segunda página: sin la lista de resultados
+    private static final String SEGUNDA_PAGINA = """
+            {"count": 3, "next": null, "results": null}
+            """;
+
+    private static HttpServer servidor; // Servidor HTTP local que imita la API.
+
+    @Autowired
+    private SincronizacionService sincronizacionService;
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private MarcaDeAguaRepository marcaRepository;
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registro) {
+        PostgresEmbebido.registrarBase(registro, "sincronizacion_incompleta");
+        try {
+            servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String url = "http://127.0.0.1:" + servidor.getAddress().getPort() + "/books/";
+        servidor.createContext("/books", intercambio -> responder(intercambio,
+                intercambio.getRequestURI().getQuery().contains("page=2")
+                        ? SEGUNDA_PAGINA : PRIMERA_PAGINA.formatted(url)));
+        servidor.start();
+        registro.add("literalura.api.url", () -> url);
+    }
+
+    @AfterAll
+    static void detener() {
+        servidor.stop(0);
+    }
+
+    @Test
+    void omiteLosRegistrosSinIdentificadorYLasPaginasSinResultados() {
+        assertThat(sincronizacionService.sincronizar()).isEqualTo(1);
+
+        assertThat(libroRepository.count()).isEqualTo(1);
+        assertThat(marcaRepository.findById("gutendex.ultimo-id").map(MarcaDeAgua::getValor)).contains(60001L);
+    }
+
+    private static void responder(HttpExchange intercambio, String json) throws IOException {
+        byte[] cuerpo = json.getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().set("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(200, cuerpo.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+}
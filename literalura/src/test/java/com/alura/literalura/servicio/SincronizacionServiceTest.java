@@ -0,0 +1,87 @@
+package com.alura.literalura.servicio;
+
+import com.alura.literalura.modelo.Datos;
+import com.alura.literalura.modelo.entidad.MarcaDeAgua;
+import com.alura.literalura.repositorio.LibroRepository;
+import com.alura.literalura.repositorio.MarcaDeAguaRepository;
+import com.alura.literalura.servicio.provedor.ConsumoAPI;
+import com.alura.literalura.servicio.provedor.ConvierteDatos;
+import com.alura.literalura.soporte.PostgresEmbebido;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica la sincronización incremental contra el servidor Gutendex simulado, con páginas
+ * pequeñas para que el catálogo (14 libros en 7 páginas) no entre en una sola sincronización.
+ */
+@SpringBootTest(properties = {
+        "literalura.simulador.puerto=18091",
+        "literalura.simulador.tamanio-pagina=2",
+        "literalura.sincronizacion.max-paginas=2"
+})
+@ActiveProfiles({"test", "simulador"})
+class SincronizacionServiceTest {
+
+    private static final long ID_MAS_RECIENTE = 55752L; // Mayor identificador del catálogo simulado.
+
+    @Autowired
+    private SincronizacionService sincronizacionService;
+
+    @Autowired
+    private LibroService libroService;
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private MarcaDeAguaRepository marcaRepository;
+
+    @Value("${literalura.api.url}")
+    private String urlBase;
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registro) {
+        PostgresEmbebido.registrarBase(registro, "sincronizacion");
+    }
+
+    @Test
+    void completaElCatalogoSinSaltarLibrosAunqueSuperenElLimiteDePaginas() {
+        // Un libro reciente guardado desde la búsqueda no debe usarse como marca inicial
+        Datos reciente = ConvierteDatos.getInstance().obtenerDatos(
+                ConsumoAPI.getInstance().obtenerFlujo(urlBase + "?ids=" + ID_MAS_RECIENTE), Datos.class);
+        libroService.guardarLibro(reciente.libros().get(0));
+
+        // Cada sincronización recorre 2 páginas de 2 libros: la marca no se mueve hasta llegar al final
+        int guardados = 0;
+        for (int i = 0; i < 3; i++) {
+            guardados += sincronizacionService.sincronizar();
+            assertThat(marca("gutendex.ultimo-id")).isEmpty();
+            assertThat(marca("gutendex.pagina-pendiente")).contains(2L * (i + 1) + 1);
+            assertThat(marca("gutendex.id-pendiente")).contains(ID_MAS_RECIENTE);
+        }
+        guardados += sincronizacionService.sincronizar();
+
+        assertThat(guardados).isEqualTo(14);
+        assertThat(libroRepository.count()).isEqualTo(14);
+        assertThat(marca("gutendex.ultimo-id")).contains(ID_MAS_RECIENTE);
+        assertThat(marca("gutendex.pagina-pendiente")).isEmpty();
+        assertThat(marca("gutendex.id-pendiente")).isEmpty();
+
+        // Sin libros nuevos, la siguiente sincronización termina en la primera página
+        assertThat(sincronizacionService.sincronizar()).isZero();
+        assertThat(marca("gutendex.ultimo-id")).contains(ID_MAS_RECIENTE);
+    }
+
+    private Optional<Long> marca(String nombre) {
+        return marcaRepository.findById(nombre).map(MarcaDeAgua::getValor);
+    }
+}
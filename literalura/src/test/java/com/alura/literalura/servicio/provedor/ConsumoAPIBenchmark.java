@@ -0,0 +1,198 @@
+package com.alura.literalura.servicio.provedor;
+
+import com.alura.literalura.modelo.Datos;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Benchmark JMH de la descarga y conversión de una página de Gutendex (32 libros) con
+ * {@link ConsumoAPI}, contra un servidor HTTP local que entrega la misma página sin comprimir,
+ * con gzip o con deflate. Al terminar cada prueba informa los bytes recibidos por la red y
+ * los decodificados por página, para comparar el ahorro de transferencia con el costo de CPU
+ * de la descompresión.
+ *
+ * No forma parte de "mvn test". Para ejecutarlo:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.alura.literalura.servicio.provedor.ConsumoAPIBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsumoAPIBenchmark {
+
+    // Libros por página en Gutendex
+    private static final int LIBROS_POR_PAGINA = 32;
+
+    @Param({"identity", "gzip", "deflate"})
+    public String codificacion; // Content-Encoding con el que responde el servidor.
+
+    private HttpServer servidor; // Servidor HTTP local.
+    private String url; // URL de la página en el servidor local.
+    private ConsumoAPI consumoAPI; // Cliente bajo prueba.
+    private ConvierteDatos conversor; // Conversor de la respuesta.
+    private long paginas; // Páginas descargadas en la prueba.
+    private long bytesTransferidosInicio; // Contador de bytes recibidos al comenzar.
+    private long bytesDecodificadosInicio; // Contador de bytes decodificados al comenzar.
+
+    /**
+     * Arma la página con los libros del catálogo simulado, la comprime y levanta el servidor local.
+     *
+     * @throws IOException Si no se puede leer el catálogo o abrir el puerto.
+     */
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        byte[] pagina = pagina();
+        byte[] cuerpo = switch (codificacion) {
+            case "gzip" -> comprimir(pagina, GZIPOutputStream::new);
+            case "deflate" -> comprimir(pagina, DeflaterOutputStream::new);
+            default -> pagina;
+        };
+        // Sin esto, Nagle y el ACK demorado suman ~40 ms por respuesta y ocultan la diferencia medida
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/books", intercambio -> responder(intercambio, cuerpo));
+        servidor.start();
+        url = "http://127.0.0.1:" + servidor.getAddress().getPort() + "/books/";
+
+        consumoAPI = ConsumoAPI.getInstance();
+        consumoAPI.setCache(null);
+        conversor = ConvierteDatos.getInstance();
+        bytesTransferidosInicio = consumoAPI.getBytesTransferidos();
+        bytesDecodificadosInicio = consumoAPI.getBytesDecodificados();
+    }
+
+    /**
+     * Informa los bytes por página y detiene el servidor.
+     */
+    @TearDown(Level.Trial)
+    public void detener() {
+        servidor.stop(0);
+        if (paginas > 0) {
+            System.out.printf("%n%s: %d bytes recibidos y %d decodificados por página%n", codificacion,
+                    (consumoAPI.getBytesTransferidos() - bytesTransferidosInicio) / paginas,
+                    (consumoAPI.getBytesDecodificados() - bytesDecodificadosInicio) / paginas);
+        }
+    }
+
+    /**
+     * Descarga la página, la descomprime si corresponde y la convierte, como en la ingesta.
+     *
+     * @return La página convertida.
+     */
+    @Benchmark
+    public Datos descargarYConvertir() {
+        paginas++;
+        return conversor.obtenerDatos(consumoAPI.obtenerFlujo(url), Datos.class);
+    }
+
+    /**
+     * Ejecuta el benchmark con el perfilador de GC.
+     *
+     * @param args Argumentos de la línea de comandos (no se usan).
+     * @throws RunnerException Si JMH no puede ejecutar el benchmark.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ConsumoAPIBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    /**
+     * Envía el cuerpo con la codificación del benchmark.
+     */
+    private void responder(HttpExchange intercambio, byte[] cuerpo) throws IOException {
+        intercambio.getRequestBody().readAllBytes();
+        if (!codificacion.equals("identity")) {
+            intercambio.getResponseHeaders().set("Content-Encoding", codificacion);
+        }
+        intercambio.getResponseHeaders().set("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(200, cuerpo.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+
+    /**
+     * Arma una página con los libros del catálogo simulado, repetidos hasta completar 32.
+     *
+     * @return La página como JSON.
+     * @throws IOException Si no se puede leer el catálogo.
+     */
+    private byte[] pagina() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode catalogo;
+        try (InputStream recurso = getClass().getResourceAsStream("/simulador/libros.json")) {
+            catalogo = mapper.readTree(recurso);
+        }
+        ObjectNode raiz = mapper.createObjectNode();
+        raiz.put("count", 70000);
+        raiz.put("next", "https://gutendex.com/books/?page=2");
+        raiz.putNull("previous");
+        ArrayNode resultados = raiz.putArray("results");
+        for (int i = 0; i < LIBROS_POR_PAGINA; i++) {
+            resultados.add(catalogo.get(i % catalogo.size()));
+        }
+        return mapper.writeValueAsBytes(raiz);
+    }
+
+    /**
+     * Comprime los datos con el compresor indicado.
+     *
+     * @param datos Datos a comprimir.
+     * @param compresor Constructor del flujo compresor.
+     * @return Los datos comprimidos.
+     * @throws IOException Si falla la compresión.
+     */
+    private static byte[] comprimir(byte[] datos, Compresor compresor) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try (OutputStream comprimido = compresor.abrir(salida)) {
+            comprimido.write(datos);
+        }
+        return salida.toByteArray();
+    }
+
+    /**
+     * Constructor de un flujo compresor.
+     */
+    @FunctionalInterface
+    private interface Compresor {
+        OutputStream abrir(OutputStream destino) throws IOException;
+    }
+}
@@ -0,0 +1,300 @@
+package com.alura.literalura.servicio.provedor;
+
+import com.alura.literalura.modelo.Datos;
+import com.alura.literalura.modelo.DatosLibro;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifica que, con la caché habilitada, ConsumoAPI entregue la respuesta en streaming mientras
+ * la copia a la caché, y que solo la guarde si el cuerpo llegó completo y se leyó sin errores.
+ * Sin caché, verifica la descompresión de gzip y de deflate (con envoltorio zlib y crudo).
+ */
+class ConsumoAPITest {
+
+    private static final byte[] PRIMERA_PARTE = "{\"count\":1,\"results\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SEGUNDA_PARTE = "{\"id\":11}]}".getBytes(StandardCharsets.UTF_8);
+
+    private final CacheEnMemoria cache = new CacheEnMemoria(); // Caché de prueba.
+    private final AtomicInteger solicitudes = new AtomicInteger(); // Solicitudes recibidas por el servidor.
+    private final CountDownLatch continuar = new CountDownLatch(1); // Habilita el envío de la segunda parte.
+    private HttpServer servidor; // Servidor HTTP local.
+    private String url; // URL base del servidor.
+
+    @BeforeEach
+    void iniciar() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/partes", this::responderEnDosPartes);
+        servidor.createContext("/gzip", this::responderGzip);
+        servidor.createContext("/cortada", this::responderCortada);
+        servidor.createContext("/invalido", this::responderInvalido);
+        servidor.createContext("/deflate", intercambio -> responderComprimido(intercambio, "deflate",
+                comprimirDeflate(cuerpoCompleto(), false)));
+        servidor.createContext("/deflate-crudo", intercambio -> responderComprimido(intercambio, "deflate",
+                comprimirDeflate(cuerpoCompleto(), true)));
+        servidor.start();
+        url = "http://127.0.0.1:" + servidor.getAddress().getPort();
+        ConsumoAPI.getInstance().setCache(cache);
+    }
+
+    @AfterEach
+    void detener() {
+        ConsumoAPI.getInstance().setCache(null);
+        continuar.countDown();
+        servidor.stop(0);
+    }
+
+    @Test
+    void entregaElCuerpoAntesDeQueTermineDeLlegarYLuegoLoGuarda() throws IOException {
+        try (InputStream flujo = ConsumoAPI.getInstance().obtenerFlujo(url + "/partes")) {
+            // La primera parte se lee mientras el servidor todavía retiene la segunda
+            assertThat(flujo.readNBytes(PRIMERA_PARTE.length)).isEqualTo(PRIMERA_PARTE);
+            assertThat(cache.guardadas).isEmpty();
+            continuar.countDown();
+            assertThat(flujo.readAllBytes()).isEqualTo(SEGUNDA_PARTE);
+            ((ILecturaConfirmable) flujo).confirmarLectura();
+        }
+
+        assertThat(descomprimir(cache.guardadas.get(url + "/partes"))).isEqualTo(cuerpoCompleto());
+        assertThat(cache.liberadas).isEmpty();
+        try (InputStream flujo = ConsumoAPI.getInstance().obtenerFlujo(url + "/partes")) {
+            assertThat(flujo.readAllBytes()).isEqualTo(cuerpoCompleto());
+        }
+        assertThat(solicitudes).hasValue(1); // La segunda vez se respondió desde la caché
+    }
+
+    @Test
+    void guardaElGzipDelServidorSinRecomprimirAunqueNoSeLeaHastaElFinal() throws IOException {
+        byte[] gzip = comprimir(cuerpoCompleto());
+
+        try (InputStream flujo = ConsumoAPI.getInstance().obtenerFlujo(url + "/gzip")) {
+            // Se lee solo el JSON, como hace el conversor, sin llegar al final del gzip
+            assertThat(flujo.readNBytes(cuerpoCompleto().length)).isEqualTo(cuerpoCompleto());
+            ((ILecturaConfirmable) flujo).confirmarLectura();
+        }
+
+        assertThat(cache.guardadas.get(url + "/gzip")).isEqualTo(gzip);
+    }
+
+    @Test
+    void liberaLaReservaSinGuardarSiElCuerpoLlegaIncompleto() {
+        assertThatThrownBy(() -> {
+            try (InputStream flujo = ConsumoAPI.getInstance().obtenerFlujo(url + "/cortada")) {
+                flujo.readAllBytes();
+            }
+        }).isInstanceOf(IOException.class);
+
+        assertThat(cache.guardadas).isEmpty();
+        assertThat(cache.liberadas).contains(url + "/cortada");
+    }
+
+    @Test
+    void noGuardaUnCuerpoCompletoQueNoEsJsonValido() {
+        assertThatThrownBy(() -> ConvierteDatos.getInstance()
+                .obtenerDatos(ConsumoAPI.getInstance().obtenerFlujo(url + "/invalido"), Datos.class))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error al procesar el JSON");
+
+        assertThat(cache.guardadas).isEmpty();
+        assertThat(cache.liberadas).contains(url + "/invalido");
+    }
+
+    @Test
+    void vuelveAReservarSiVenceLaReservaDeOtraInstancia() throws IOException {
+        cache.reservasAjenas.set(1); // Otra instancia la reservó y su reserva vence sin respuesta
+
+        assertThat(ConsumoAPI.getInstance().obtenerDatos(url + "/gzip"))
+                .isEqualTo(new String(cuerpoCompleto(), StandardCharsets.UTF_8));
+
+        assertThat(cache.reservas).hasValue(2);
+        assertThat(solicitudes).hasValue(1);
+        assertThat(cache.guardadas).containsKey(url + "/gzip");
+    }
+
+    @Test
+    void sinCacheDescomprimeGzip() {
+        ConsumoAPI.getInstance().setCache(null);
+
+        assertThat(ConsumoAPI.getInstance().obtenerDatos(url + "/gzip"))
+                .isEqualTo(new String(cuerpoCompleto(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void sinCacheDescomprimeDeflateConEnvoltorioZlib() {
+        ConsumoAPI.getInstance().setCache(null);
+
+        assertThat(ConsumoAPI.getInstance().obtenerDatos(url + "/deflate"))
+                .isEqualTo(new String(cuerpoCompleto(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void sinCacheDescomprimeDeflateCrudo() {
+        ConsumoAPI.getInstance().setCache(null);
+        long decodificadosAntes = ConsumoAPI.getInstance().getBytesDecodificados();
+
+        Datos datos = ConvierteDatos.getInstance()
+                .obtenerDatos(ConsumoAPI.getInstance().obtenerFlujo(url + "/deflate-crudo"), Datos.class);
+
+        assertThat(datos.libros()).extracting(DatosLibro::idGutendex).containsExactly(11L);
+        assertThat(ConsumoAPI.getInstance().getBytesDecodificados() - decodificadosAntes)
+                .isEqualTo(cuerpoCompleto().length);
+    }
+
+    /**
+     * Envía el cuerpo sin comprimir en dos partes, reteniendo la segunda hasta que la prueba lo indique.
+     */
+    private void responderEnDosPartes(HttpExchange intercambio) throws IOException {
+        solicitudes.incrementAndGet();
+        intercambio.sendResponseHeaders(200, 0);
+        try (OutputStream cuerpo = intercambio.getResponseBody()) {
+            cuerpo.write(PRIMERA_PARTE);
+            cuerpo.flush();
+            continuar.await(10, TimeUnit.SECONDS);
+            cuerpo.write(SEGUNDA_PARTE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Envía el cuerpo comprimido con gzip.
+     */
+    private void responderGzip(HttpExchange intercambio) throws IOException {
+        solicitudes.incrementAndGet();
+        byte[] gzip = comprimir(cuerpoCompleto());
+        intercambio.getResponseHeaders().set("Content-Encoding", "gzip");
+        intercambio.sendResponseHeaders(200, gzip.length);
+        try (OutputStream cuerpo = intercambio.getResponseBody()) {
+            cuerpo.write(gzip);
+        }
+    }
+
+    /**
+     * Envía un cuerpo ya comprimido con la codificación indicada.
+     */
+    private static void responderComprimido(HttpExchange intercambio, String codificacion, byte[] comprimido)
+            throws IOException {
+        intercambio.getResponseHeaders().set("Content-Encoding", codificacion);
+        intercambio.sendResponseHeaders(200, comprimido.length);
+        try (OutputStream cuerpo = intercambio.getResponseBody()) {
+            cuerpo.write(comprimido);
+        }
+    }
+
+    /**
+     * Responde correctamente, pero con una página HTML en lugar de JSON.
+     */
+    private void responderInvalido(HttpExchange intercambio) throws IOException {
+        byte[] html = "<html><body>Mantenimiento</body></html>".getBytes(StandardCharsets.UTF_8);
+        intercambio.sendResponseHeaders(200, html.length);
+        try (OutputStream cuerpo = intercambio.getResponseBody()) {
+            cuerpo.write(html);
+        }
+    }
+
+    /**
+     * Anuncia un cuerpo más largo que el que envía y cierra la conexión.
+     */
+    private void responderCortada(HttpExchange intercambio) throws IOException {
+        intercambio.sendResponseHeaders(200, 1000);
+        OutputStream cuerpo = intercambio.getResponseBody();
+        cuerpo.write(PRIMERA_PARTE);
+        cuerpo.flush();
+        intercambio.getHttpContext().getServer().stop(0);
+    }
+
+    private static byte[] cuerpoCompleto() {
+        ByteArrayOutputStream cuerpo = new ByteArrayOutputStream();
+        cuerpo.writeBytes(PRIMERA_PARTE);
+        cuerpo.writeBytes(SEGUNDA_PARTE);
+        return cuerpo.toByteArray();
+    }
+
+    private static byte[] comprimir(byte[] datos) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(datos);
+        }
+        return salida.toByteArray();
+    }
+
+    private static byte[] comprimirDeflate(byte[] datos, boolean crudo) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, crudo);
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(salida, deflater)) {
+            deflate.write(datos);
+        } finally {
+            deflater.end();
+        }
+        return salida.toByteArray();
+    }
+
+    private static byte[] descomprimir(byte[] gzip) throws IOException {
+        try (InputStream entrada = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return entrada.readAllBytes();
+        }
+    }
+
+    /**
+     * Caché en memoria que registra lo guardado, las reservas pedidas y las liberadas.
+     * Puede simular que otra instancia tiene la reserva y que esta vence sin respuesta.
+     */
+    private static class CacheEnMemoria implements ICacheRespuestas {
+
+        private final Map<String, byte[]> guardadas = new ConcurrentHashMap<>();
+        private final Set<String> liberadas = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger reservas = new AtomicInteger(); // Reservas pedidas.
+        private final AtomicInteger reservasAjenas = new AtomicInteger(); // Reservas que se niegan.
+
+        @Override
+        public Optional<byte[]> buscar(String url) {
+            return Optional.ofNullable(guardadas.get(url));
+        }
+
+        @Override
+        public boolean reservar(String url) {
+            reservas.incrementAndGet();
+            return reservasAjenas.getAndUpdate(n -> Math.max(n - 1, 0)) == 0;
+        }
+
+        @Override
+        public Optional<byte[]> esperar(String url) {
+            return buscar(url);
+        }
+
+        @Override
+        public void guardar(String url, byte[] cuerpoComprimido) {
+            guardadas.put(url, cuerpoComprimido);
+        }
+
+        @Override
+        public void liberar(String url) {
+            liberadas.add(url);
+        }
+    }
+}
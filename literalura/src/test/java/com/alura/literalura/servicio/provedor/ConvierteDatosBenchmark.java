@@ -0,0 +1,127 @@
+package com.alura.literalura.servicio.provedor;
+
+import com.alura.literalura.modelo.Datos;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de la conversión de una página de Gutendex (32 libros) a {@link Datos}.
+ * Compara el camino anterior (un ObjectMapper sin módulos que lee un String con readValue)
+ * con el actual de {@link ConvierteDatos} (lector previnculado por tipo, Blackbird y lectura
+ * directa del flujo). Con el perfilador de GC, "gc.alloc.rate.norm" es la memoria asignada por página.
+ *
+ * No forma parte de "mvn test". Para ejecutarlo:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.alura.literalura.servicio.provedor.ConvierteDatosBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConvierteDatosBenchmark {
+
+    // Libros por página en Gutendex
+    private static final int LIBROS_POR_PAGINA = 32;
+
+    private byte[] paginaBytes; // Página como bytes, tal como llega por la red.
+    private ObjectMapper mapperAnterior; // Mapper sin módulos, como antes del cambio.
+    private ConvierteDatos conversor; // Conversor actual.
+
+    /**
+     * Arma una página con los libros del catálogo simulado, repetidos hasta completar 32.
+     *
+     * @throws IOException Si no se puede leer el catálogo.
+     */
+    @Setup
+    public void preparar() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode catalogo;
+        try (InputStream recurso = getClass().getResourceAsStream("/simulador/libros.json")) {
+            catalogo = mapper.readTree(recurso);
+        }
+        ObjectNode raiz = mapper.createObjectNode();
+        raiz.put("count", 70000);
+        raiz.put("next", "https://gutendex.com/books/?page=2");
+        raiz.putNull("previous");
+        ArrayNode resultados = raiz.putArray("results");
+        for (int i = 0; i < LIBROS_POR_PAGINA; i++) {
+            resultados.add(catalogo.get(i % catalogo.size()));
+        }
+        paginaBytes = mapper.writeValueAsBytes(raiz);
+        mapperAnterior = new ObjectMapper();
+        conversor = ConvierteDatos.getInstance();
+    }
+
+    /**
+     * Camino anterior: el cuerpo completo como String y readValue en un mapper sin módulos.
+     * Incluye la decodificación de bytes a String que hacía ConsumoAPI.
+     *
+     * @return La página convertida.
+     * @throws IOException Si el JSON no es válido.
+     */
+    @Benchmark
+    public Datos readValueDesdeString() throws IOException {
+        return mapperAnterior.readValue(new String(paginaBytes, StandardCharsets.UTF_8), Datos.class);
+    }
+
+    /**
+     * Camino anterior, pero leyendo directamente el flujo (aísla el efecto del lector y de Blackbird).
+     *
+     * @return La página convertida.
+     * @throws IOException Si el JSON no es válido.
+     */
+    @Benchmark
+    public Datos readValueDesdeFlujo() throws IOException {
+        return mapperAnterior.readValue(new ByteArrayInputStream(paginaBytes), Datos.class);
+    }
+
+    /**
+     * Camino actual: lector previnculado con Blackbird sobre el flujo.
+     *
+     * @return La página convertida.
+     */
+    @Benchmark
+    public Datos lectorPrevinculado() {
+        return conversor.obtenerDatos(new ByteArrayInputStream(paginaBytes), Datos.class);
+    }
+
+    /**
+     * Ejecuta el benchmark con el perfilador de GC.
+     *
+     * @param args Argumentos de la línea de comandos (no se usan).
+     * @throws RunnerException Si JMH no puede ejecutar el benchmark.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ConvierteDatosBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,317 @@
+package com.alura.literalura.simulador;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Servidor HTTP local que imita la API de Gutendex a partir de páginas grabadas.
+ * Permite probar la aplicación y medir la ingesta sin acceso a internet.
+ *
+ * Se activa con el perfil "simulador" y admite los filtros "search", "ids", "sort" y "page",
+ * paginación configurable, latencia artificial e inyección de fallas: errores 503, demoras
+ * ocasionales y cuerpos cortados a la mitad.
+ */
+@Component
+@Profile("simulador")
+public class ServidorGutendexSimulado {
+
+    @Value("${literalura.simulador.puerto:8089}")
+    private int puerto; // Puerto en el que escucha el servidor.
+
+    @Value("${literalura.simulador.tamanio-pagina:32}")
+    private int tamanioPagina; // Cantidad de libros por página (Gutendex usa 32).
+
+    @Value("${literalura.simulador.latencia-ms:0}")
+    private long latenciaMs; // Retraso artificial aplicado a cada respuesta.
+
+    @Value("${literalura.simulador.tasa-error:0}")
+    private double tasaError; // Probabilidad (entre 0 y 1) de responder con un error 503.
+
+    @Value("${literalura.simulador.tasa-demora:0}")
+    private double tasaDemora; // Probabilidad (entre 0 y 1) de demorar la respuesta.
+
+    @Value("${literalura.simulador.demora-ms:5000}")
+    private long demoraMs; // Retraso adicional de las respuestas demoradas.
+
+    @Value("${literalura.simulador.tasa-corte:0}")
+    private double tasaCorte; // Probabilidad (entre 0 y 1) de cortar el cuerpo a la mitad.
+
+    @Value("${literalura.simulador.copias:1}")
+    private int copias; // Veces que se replica el catálogo grabado para simular uno más grande.
+
+    private final ObjectMapper objectMapper = new ObjectMapper(); // Serializador de las respuestas.
+    private final List<JsonNode> catalogo = new ArrayList<>(); // Libros servidos, ordenados por id.
+    private HttpServer servidor; // Servidor HTTP del JDK.
+
+    /**
+     * Carga el catálogo grabado y arranca el servidor.
+     *
+     * @throws IOException Si no se puede leer el catálogo o abrir el puerto.
+     */
+    @PostConstruct
+    public void iniciar() throws IOException {
+        cargarCatalogo();
+        servidor = HttpServer.create(new InetSocketAddress("localhost", puerto), 0);
+        servidor.createContext("/books", this::atender);
+        servidor.setExecutor(Executors.newCachedThreadPool());
+        servidor.start();
+        System.out.println("Servidor Gutendex simulado en http://localhost:" + puerto + "/books/ ("
+                + catalogo.size() + " libros)");
+    }
+
+    /**
+     * Detiene el servidor al cerrar la aplicación.
+     */
+    @PreDestroy
+    public void detener() {
+        if (servidor != null) {
+            servidor.stop(0);
+        }
+    }
+
+    /**
+     * Lee los libros grabados y los replica con identificadores y títulos distintos
+     * según la cantidad de copias configurada.
+     *
+     * @throws IOException Si no se puede leer el recurso grabado.
+     */
+    private void cargarCatalogo() throws IOException {
+        JsonNode grabados;
+        try (InputStream in = new ClassPathResource("simulador/libros.json").getInputStream()) {
+            grabados = objectMapper.readTree(in);
+        }
+        for (int copia = 0; copia < Math.max(1, copias); copia++) {
+            for (JsonNode grabado : grabados) {
+                ObjectNode libro = grabado.deepCopy();
+                if (copia > 0) {
+                    libro.put("id", grabado.get("id").asLong() + copia * 1_000_000L);
+                    libro.put("title", grabado.get("title").asText() + " - Edición " + copia);
+                }
+                catalogo.add(libro);
+            }
+        }
+        catalogo.sort(Comparator.comparingLong(libro -> libro.get("id").asLong()));
+    }
+
+    /**
+     * Atiende una solicitud a "/books/", aplicando latencia, errores, filtros y paginación.
+     *
+     * @param intercambio La solicitud HTTP recibida.
+     * @throws IOException Si falla la escritura de la respuesta.
+     */
+    private void atender(HttpExchange intercambio) throws IOException {
+        try {
+            esperar();
+            if (sortear(tasaError)) {
+                intercambio.sendResponseHeaders(503, -1);
+                return;
+            }
+
+            Map<String, String> parametros = leerParametros(intercambio.getRequestURI().getRawQuery());
+            List<JsonNode> resultados = filtrar(parametros);
+            int pagina = Integer.parseInt(parametros.getOrDefault("page", "1"));
+            int desde = Math.min((pagina - 1) * tamanioPagina, resultados.size());
+            int hasta = Math.min(desde + tamanioPagina, resultados.size());
+
+            ObjectNode respuesta = objectMapper.createObjectNode();
+            respuesta.put("count", resultados.size());
+            respuesta.put("next", hasta < resultados.size() ? crearUrlPagina(parametros, pagina + 1) : null);
+            respuesta.put("previous", pagina > 1 ? crearUrlPagina(parametros, pagina - 1) : null);
+            respuesta.putArray("results").addAll(resultados.subList(desde, hasta));
+
+            byte[] cuerpo = objectMapper.writeValueAsBytes(respuesta);
+            String aceptadas = intercambio.getRequestHeaders().getFirst("Accept-Encoding");
+            intercambio.getResponseHeaders().set("Content-Type", "application/json");
+            if (aceptadas != null && aceptadas.contains("gzip")) {
+                intercambio.getResponseHeaders().set("Content-Encoding", "gzip");
+                cuerpo = comprimir(cuerpo);
+            }
+            intercambio.sendResponseHeaders(200, cuerpo.length);
+            OutputStream salida = intercambio.getResponseBody();
+            if (sortear(tasaCorte)) {
+                cortar(intercambio, salida, cuerpo);
+                return;
+            }
+            salida.write(cuerpo);
+            salida.close();
+        } finally {
+            intercambio.close();
+        }
+    }
+
+    /**
+     * Envía la mitad del cuerpo anunciado y cierra la conexión, como un servidor que se cae
+     * a mitad de la respuesta.
+     *
+     * @param intercambio La solicitud HTTP recibida.
+     * @param salida El cuerpo de la respuesta, con la longitud completa ya anunciada.
+     * @param cuerpo El cuerpo completo.
+     * @throws IOException Si falla la escritura de la primera mitad.
+     */
+    private void cortar(HttpExchange intercambio, OutputStream salida, byte[] cuerpo) throws IOException {
+        salida.write(cuerpo, 0, cuerpo.length / 2);
+        salida.flush();
+        intercambio.close(); // Con bytes faltantes, el servidor cierra la conexión
+    }
+
+    /**
+     * Comprime un cuerpo con gzip.
+     *
+     * @param cuerpo El cuerpo sin comprimir.
+     * @return El cuerpo comprimido.
+     * @throws IOException Si falla la compresión.
+     */
+    private byte[] comprimir(byte[] cuerpo) throws IOException {
+        ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(comprimido)) {
+            gzip.write(cuerpo);
+        }
+        return comprimido.toByteArray();
+    }
+
+    /**
+     * Aplica los filtros "search" e "ids" y el orden "sort" sobre el catálogo.
+     *
+     * @param parametros Parámetros de la consulta.
+     * @return Los libros que coinciden, en el orden solicitado.
+     */
+    private List<JsonNode> filtrar(Map<String, String> parametros) {
+        String busqueda = parametros.getOrDefault("search", "").toLowerCase(Locale.ROOT);
+        Set<Long> ids = new HashSet<>();
+        if (parametros.containsKey("ids")) {
+            for (String id : parametros.get("ids").split(",")) {
+                ids.add(Long.parseLong(id.trim()));
+            }
+        }
+
+        List<JsonNode> resultados = new ArrayList<>();
+        for (JsonNode libro : catalogo) {
+            if (!ids.isEmpty() && !ids.contains(libro.get("id").asLong())) {
+                continue;
+            }
+            if (!busqueda.isBlank() && !coincide(libro, busqueda)) {
+                continue;
+            }
+            resultados.add(libro);
+        }
+        if ("descending".equals(parametros.get("sort"))) {
+            Collections.reverse(resultados);
+        } else if (!"ascending".equals(parametros.get("sort"))) {
+            resultados.sort(Comparator.comparingLong(
+                    (JsonNode libro) -> libro.get("download_count").asLong()).reversed());
+        }
+        return resultados;
+    }
+
+    /**
+     * Indica si todas las palabras buscadas aparecen en el título o en los autores del libro,
+     * igual que el filtro "search" de Gutendex.
+     *
+     * @param libro El libro a evaluar.
+     * @param busqueda Las palabras buscadas, en minúsculas.
+     * @return true si el libro coincide.
+     */
+    private boolean coincide(JsonNode libro, String busqueda) {
+        StringBuilder texto = new StringBuilder(libro.get("title").asText());
+        libro.get("authors").forEach(autor -> texto.append(' ').append(autor.get("name").asText()));
+        String contenido = texto.toString().toLowerCase(Locale.ROOT);
+        for (String palabra : busqueda.split("\\s+")) {
+            if (!contenido.contains(palabra)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Construye la URL de otra página conservando los demás parámetros de la consulta.
+     *
+     * @param parametros Parámetros de la consulta actual.
+     * @param pagina Número de la página.
+     * @return La URL absoluta de la página.
+     */
+    private String crearUrlPagina(Map<String, String> parametros, int pagina) {
+        StringBuilder url = new StringBuilder("http://localhost:" + puerto + "/books/?page=" + pagina);
+        parametros.forEach((clave, valor) -> {
+            if (!"page".equals(clave)) {
+                url.append('&').append(clave).append('=').append(valor.replace(" ", "+"));
+            }
+        });
+        return url.toString();
+    }
+
+    /**
+     * Convierte la cadena de consulta en un mapa de parámetros decodificados.
+     *
+     * @param consulta La cadena de consulta sin decodificar (puede ser null).
+     * @return Los parámetros de la consulta.
+     */
+    private Map<String, String> leerParametros(String consulta) {
+        Map<String, String> parametros = new HashMap<>();
+        if (consulta == null || consulta.isBlank()) {
+            return parametros;
+        }
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            if (igual > 0) {
+                parametros.put(URLDecoder.decode(par.substring(0, igual), StandardCharsets.UTF_8),
+                        URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parametros;
+    }
+
+    /**
+     * Indica si ocurre una falla con la probabilidad indicada.
+     *
+     * @param tasa Probabilidad entre 0 y 1.
+     * @return true si la falla ocurre.
+     */
+    private boolean sortear(double tasa) {
+        return tasa > 0 && ThreadLocalRandom.current().nextDouble() < tasa;
+    }
+
+    /**
+     * Aplica la latencia artificial configurada, más la demora ocasional si corresponde.
+     */
+    private void esperar() {
+        long retraso = latenciaMs + (sortear(tasaDemora) ? demoraMs : 0);
+        if (retraso <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(retraso);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restablecer el estado de interrupción
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.alura.literalura.simulador;
+
+import com.alura.literalura.modelo.Datos;
+import com.alura.literalura.servicio.provedor.ConsumoAPI;
+import com.alura.literalura.servicio.provedor.ConvierteDatos;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifica las fallas que inyecta el servidor Gutendex simulado, vistas desde el cliente de la
+ * aplicación. Solo levanta el simulador, sin base de datos.
+ */
+@SpringBootTest(classes = ServidorGutendexSimulado.class, properties = "literalura.simulador.puerto=18092")
+@ActiveProfiles("simulador")
+class ServidorGutendexSimuladoTest {
+
+    @Autowired
+    private ServidorGutendexSimulado simulador;
+
+    @Value("${literalura.api.url}")
+    private String urlBase;
+
+    @AfterEach
+    void quitarFallas() {
+        ReflectionTestUtils.setField(simulador, "tasaCorte", 0.0);
+        ReflectionTestUtils.setField(simulador, "tasaDemora", 0.0);
+    }
+
+    @Test
+    void sinFallasEntregaLaPagina() {
+        assertThat(leer().libros()).hasSize(14);
+    }
+
+    @Test
+    void unCuerpoCortadoFallaAlLeerlo() {
+        ReflectionTestUtils.setField(simulador, "tasaCorte", 1.0);
+
+        assertThatThrownBy(this::leer).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void unaRespuestaDemoradaLlegaDespuesDeLaDemora() {
+        ReflectionTestUtils.setField(simulador, "tasaDemora", 1.0);
+        ReflectionTestUtils.setField(simulador, "demoraMs", 300L);
+
+        long inicio = System.nanoTime();
+        assertThat(leer().libros()).hasSize(14);
+        assertThat((System.nanoTime() - inicio) / 1_000_000).isGreaterThanOrEqualTo(300);
+    }
+
+    private Datos leer() {
+        return ConvierteDatos.getInstance().obtenerDatos(ConsumoAPI.getInstance().obtenerFlujo(urlBase), Datos.class);
+    }
+}
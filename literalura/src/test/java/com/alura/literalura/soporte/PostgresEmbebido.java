@@ -0,0 +1,113 @@
+package com.alura.literalura.soporte;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor PostgreSQL embebido compartido por las pruebas.
+ * Se inicia una sola vez por JVM y cada prueba crea su propia base de datos vacía,
+ * de modo que las pruebas no dependen unas de otras ni de una base instalada.
+ */
+public final class PostgresEmbebido {
+
+    private static final AtomicInteger SECUENCIA = new AtomicInteger(); // Sufijo de los nombres de base.
+
+    private static EmbeddedPostgres servidor; // Servidor compartido.
+
+    private PostgresEmbebido() {}
+
+    /**
+     * Obtiene el servidor compartido, iniciándolo la primera vez.
+     *
+     * @return El servidor embebido.
+     */
+    public static synchronized EmbeddedPostgres servidor() {
+        if (servidor == null) {
+            servidor = iniciar();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    servidor.close();
+                } catch (IOException e) {
+                    // El proceso termina de todos modos
+                }
+            }));
+        }
+        return servidor;
+    }
+
+    /**
+     * Inicia un servidor embebido nuevo, independiente del compartido.
+     *
+     * @return El servidor iniciado; quien lo pide debe cerrarlo.
+     */
+    public static EmbeddedPostgres iniciar() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo iniciar PostgreSQL embebido", e);
+        }
+    }
+
+    /**
+     * Crea una base de datos vacía en el servidor compartido.
+     *
+     * @param prefijo Prefijo del nombre de la base.
+     * @return El nombre de la base creada.
+     */
+    public static String crearBase(String prefijo) {
+        return crearBase(servidor(), prefijo);
+    }
+
+    /**
+     * Crea una base de datos vacía en un servidor.
+     *
+     * @param pg Servidor donde se crea la base.
+     * @param prefijo Prefijo del nombre de la base.
+     * @return El nombre de la base creada.
+     */
+    public static String crearBase(EmbeddedPostgres pg, String prefijo) {
+        String nombre = prefijo + "_" + SECUENCIA.incrementAndGet();
+        new JdbcTemplate(pg.getPostgresDatabase()).execute("CREATE DATABASE " + nombre);
+        return nombre;
+    }
+
+    /**
+     * Crea una base vacía en el servidor compartido y la registra como la base de la aplicación
+     * (primaria y réplica) para un contexto de Spring de prueba.
+     *
+     * @param registro Registro de propiedades dinámicas de la prueba.
+     * @param prefijo Prefijo del nombre de la base.
+     */
+    public static void registrarBase(DynamicPropertyRegistry registro, String prefijo) {
+        String url = url(servidor(), crearBase(prefijo));
+        registro.add("spring.datasource.url", () -> url);
+        registro.add("spring.datasource.username", () -> "postgres");
+    }
+
+    /**
+     * Obtiene una fuente de datos sobre una base del servidor compartido.
+     *
+     * @param base Nombre de la base.
+     * @return La fuente de datos.
+     */
+    public static DataSource fuente(String base) {
+        return servidor().getDatabase("postgres", base);
+    }
+
+    /**
+     * Obtiene la URL JDBC de una base de un servidor.
+     *
+     * @param pg Servidor de la base.
+     * @param base Nombre de la base.
+     * @return La URL JDBC.
+     */
+    public static String url(EmbeddedPostgres pg, String base) {
+        return pg.getJdbcUrl("postgres", base);
+    }
+}
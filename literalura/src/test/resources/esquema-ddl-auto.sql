@@ -0,0 +1,20 @@
+-- Esquema tal como lo generaba Hibernate 6.4 con ddl-auto=update antes de adoptar Flyway
+-- (entidades Libro y Autor originales, con el idioma como enum EnumType.STRING).
+create table autores (id bigserial not null, anhio_de_fallecimiento integer, anhio_de_nacimiento integer, nombre varchar(255), primary key (id));
+create table libros (id bigserial not null, contador_de_descargas integer, idioma varchar(255) check (idioma in ('INGLES','ESPANIOL','FRANCES','PORTUGUES')), temas varchar(255), titulo varchar(255), primary key (id));
+create table libros_autores (libro_id bigint not null, autor_id bigint not null, primary key (libro_id, autor_id));
+alter table if exists libros add constraint UK_n61s8dgmfjvgk18e4w53543oo unique (titulo);
+alter table if exists libros_autores add constraint FK7s1bbe6brp9ko7bkmwe2jogg1 foreign key (autor_id) references autores;
+alter table if exists libros_autores add constraint FKrhvgul28krs4exivf7skies1k foreign key (libro_id) references libros;
+
+-- Datos guardados por la versión anterior
+insert into autores (nombre, anhio_de_nacimiento, anhio_de_fallecimiento) values
+    ('Austen, Jane', 1775, 1817),
+    ('Cervantes Saavedra, Miguel de', 1547, 1616),
+    ('Homer', -750, -650);
+insert into libros (titulo, temas, idioma, contador_de_descargas) values
+    ('Pride and Prejudice', 'Love stories;England', 'INGLES', 60000),
+    ('Don Quijote', 'Spain -- Fiction', 'ESPANIOL', 14000),
+    ('Les Misérables', 'France -- History', 'FRANCES', 9000),
+    ('Odisseia', 'Epic poetry', null, 300);
+insert into libros_autores (libro_id, autor_id) values (1, 1), (2, 2), (4, 3);